@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -23,10 +23,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.ibatis.annotations.Flush;
 import org.apache.ibatis.annotations.MapKey;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.AsyncExecutors;
+import org.apache.ibatis.executor.result.ColumnarResult;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.StatementType;
@@ -37,6 +40,9 @@ import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.defaults.DefaultSqlSession;
+import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
 
 /**
  * @author Clinton Begin
@@ -56,8 +62,15 @@ public class MapperMethod {
 
 
   public Object execute(SqlSession sqlSession, Object[] args) {
+    if (method.returnsFuture()) {
+      return executeAsync(sqlSession, args);
+    }
+    return execute(sqlSession, args, command.getType());
+  }
+
+  private Object execute(SqlSession sqlSession, Object[] args, SqlCommandType type) {
     Object result;
-    switch (command.getType()) {
+    switch (type) {
       case INSERT: {
         Object param = method.convertArgsToSqlCommandParam(args);
         result = rowCountResult(sqlSession.insert(command.getName(), param));
@@ -83,6 +96,8 @@ public class MapperMethod {
           result = executeForMap(sqlSession, args);
         } else if (method.returnsCursor()) {
           result = executeForCursor(sqlSession, args);
+        } else if (method.returnsColumnar()) {
+          result = executeForColumnar(sqlSession, args);
         } else {
           Object param = method.convertArgsToSqlCommandParam(args);
           result = sqlSession.selectOne(command.getName(), param);
@@ -121,6 +136,39 @@ public class MapperMethod {
     return result;
   }
 
+  private CompletableFuture<Object> executeAsync(SqlSession sqlSession, Object[] args) {
+    final SqlSessionFactory sqlSessionFactory = getAsyncSqlSessionFactory(sqlSession);
+    return CompletableFuture.supplyAsync(() -> {
+      // sessions are not thread safe, so every call runs in a session of its own
+      try (SqlSession asyncSqlSession = sqlSessionFactory.openSession()) {
+        final Object result = execute(asyncSqlSession, args, command.getType());
+        asyncSqlSession.commit();
+        return result;
+      }
+    }, AsyncExecutors.getExecutor(sqlSession.getConfiguration()));
+  }
+
+  /**
+   * Returns the factory that opened the session of the mapper, so the asynchronous session runs on the same
+   * environments (e.g. the shards of a {@link org.apache.ibatis.session.defaults.ShardedSqlSessionFactory}).
+   */
+  private SqlSessionFactory getAsyncSqlSessionFactory(SqlSession sqlSession) {
+    final SqlSessionFactory sqlSessionFactory;
+    if (sqlSession instanceof SqlSessionFactory) {
+      // e.g. a SqlSessionManager, which opens its sessions from the factory it wraps
+      sqlSessionFactory = (SqlSessionFactory) sqlSession;
+    } else if (sqlSession instanceof DefaultSqlSession && ((DefaultSqlSession) sqlSession).getSqlSessionFactory() != null) {
+      sqlSessionFactory = ((DefaultSqlSession) sqlSession).getSqlSessionFactory();
+    } else {
+      throw new BindingException("Mapper method '" + command.getName() + "' could not be executed asynchronously.  "
+          + "The session was not opened by a SqlSessionFactory, so there is no factory to open its own session from.");
+    }
+    if (sqlSessionFactory instanceof DefaultSqlSessionFactory && sqlSessionFactory.getConfiguration().getEnvironment() == null) {
+      throw new BindingException("Mapper method '" + command.getName() + "' could not be executed asynchronously.  Environment was not configured.");
+    }
+    return sqlSessionFactory;
+  }
+
   private void executeWithResultHandler(SqlSession sqlSession, Object[] args) {
     MappedStatement ms = sqlSession.getConfiguration().getMappedStatement(command.getName());
     if (!StatementType.CALLABLE.equals(ms.getStatementType())
@@ -170,6 +218,16 @@ public class MapperMethod {
     return result;
   }
 
+  private ColumnarResult executeForColumnar(SqlSession sqlSession, Object[] args) {
+    Object param = method.convertArgsToSqlCommandParam(args);
+    if (method.hasRowBounds()) {
+      RowBounds rowBounds = method.extractRowBounds(args);
+      return sqlSession.selectColumnar(command.getName(), param, rowBounds);
+    } else {
+      return sqlSession.selectColumnar(command.getName(), param);
+    }
+  }
+
   private <E> Object convertToDeclaredCollection(Configuration config, List<E> list) {
     Object collection = config.getObjectFactory().create(method.getReturnType());
     MetaObject metaObject = config.newMetaObject(collection);
@@ -279,7 +337,9 @@ public class MapperMethod {
     private final boolean returnsMap;
     private final boolean returnsVoid;
     private final boolean returnsCursor;
+    private final boolean returnsColumnar;
     private final boolean returnsOptional;
+    private final boolean returnsFuture;
     private final Class<?> returnType;
     private final String mapKey;
     private final Integer resultHandlerIndex;
@@ -288,17 +348,27 @@ public class MapperMethod {
 
     public MethodSignature(Configuration configuration, Class<?> mapperInterface, Method method) {
       Type resolvedReturnType = TypeParameterResolver.resolveReturnType(method, mapperInterface);
+      this.returnsFuture = CompletableFuture.class.equals(method.getReturnType());
+      if (returnsFuture) {
+        // the other properties describe the result the future completes with
+        resolvedReturnType = resolvedReturnType instanceof ParameterizedType
+            ? ((ParameterizedType) resolvedReturnType).getActualTypeArguments()[0] : Object.class;
+      }
       if (resolvedReturnType instanceof Class<?>) {
         this.returnType = (Class<?>) resolvedReturnType;
       } else if (resolvedReturnType instanceof ParameterizedType) {
         this.returnType = (Class<?>) ((ParameterizedType) resolvedReturnType).getRawType();
       } else {
-        this.returnType = method.getReturnType();
+        this.returnType = returnsFuture ? Object.class : method.getReturnType();
       }
-      this.returnsVoid = void.class.equals(this.returnType);
+      this.returnsVoid = void.class.equals(this.returnType) || returnsFuture && Void.class.equals(this.returnType);
       this.returnsMany = configuration.getObjectFactory().isCollection(this.returnType) || this.returnType.isArray();
       this.returnsCursor = Cursor.class.equals(this.returnType);
+      this.returnsColumnar = ColumnarResult.class.equals(this.returnType);
       this.returnsOptional = Optional.class.equals(this.returnType);
+      if (returnsFuture && returnsCursor) {
+        throw new BindingException("Mapper method '" + method.getName() + "' cannot return a Cursor asynchronously because the cursor is closed with its session.");
+      }
       this.mapKey = getMapKey(method);
       this.returnsMap = this.mapKey != null;
       this.rowBoundsIndex = getUniqueParamIndex(method, RowBounds.class);
@@ -350,6 +420,15 @@ public class MapperMethod {
       return returnsCursor;
     }
 
+    /**
+     * return whether return type is {@code ColumnarResult}.
+     * @return return {@code true}, if return type is {@code ColumnarResult}
+     * @since 3.5.3
+     */
+    public boolean returnsColumnar() {
+      return returnsColumnar;
+    }
+
     /**
      * return whether return type is {@code java.util.Optional}.
      * @return return {@code true}, if return type is {@code java.util.Optional}
@@ -359,6 +438,15 @@ public class MapperMethod {
       return returnsOptional;
     }
 
+    /**
+     * return whether return type is {@code java.util.concurrent.CompletableFuture}.
+     * @return return {@code true}, if return type is {@code java.util.concurrent.CompletableFuture}
+     * @since 3.5.3
+     */
+    public boolean returnsFuture() {
+      return returnsFuture;
+    }
+
     private Integer getUniqueParamIndex(Method method, Class<?> paramType) {
       Integer index = null;
       final Class<?>[] argTypes = method.getParameterTypes();
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -377,6 +377,18 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setCallSettersOnNulls(booleanValueOf(props.getProperty("callSettersOnNulls"), false));
     configuration.setUseActualParamName(booleanValueOf(props.getProperty("useActualParamName"), true));
     configuration.setReturnInstanceForEmptyRow(booleanValueOf(props.getProperty("returnInstanceForEmptyRow"), false));
+    configuration.setDynamicSqlShapeCacheEnabled(booleanValueOf(props.getProperty("dynamicSqlShapeCacheEnabled"), false));
+    configuration.setCompiledRowMappersEnabled(booleanValueOf(props.getProperty("compiledRowMappersEnabled"), false));
+    configuration.setResultSetLayoutCacheEnabled(booleanValueOf(props.getProperty("resultSetLayoutCacheEnabled"), false));
+    configuration.setCompactMapRowsEnabled(booleanValueOf(props.getProperty("compactMapRowsEnabled"), false));
+    configuration.setNestedQueryBatchSize(integerValueOf(props.getProperty("nestedQueryBatchSize"), 500));
+    configuration.setCursorPrefetchSize(integerValueOf(props.getProperty("cursorPrefetchSize"), 0));
+    configuration.setStatementCacheSize(integerValueOf(props.getProperty("statementCacheSize"), 0));
+    configuration.setBatchFlushSize(integerValueOf(props.getProperty("batchFlushSize"), 0));
+    configuration.setBatchFlushBytes(integerValueOf(props.getProperty("batchFlushBytes"), 0));
+    configuration.setBatchGroupingEnabled(booleanValueOf(props.getProperty("batchGroupingEnabled"), false));
+    configuration.setMultiRowInsertSize(integerValueOf(props.getProperty("multiRowInsertSize"), 0));
+    configuration.setMultiRowInsertMaxParameters(integerValueOf(props.getProperty("multiRowInsertMaxParameters"), 0));
     configuration.setLogPrefix(props.getProperty("logPrefix"));
     configuration.setConfigurationFactory(resolveClass(props.getProperty("configurationFactory")));
   }
@@ -0,0 +1,248 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ibatis.cursor.defaults.DefaultCursor;
+import org.apache.ibatis.cursor.defaults.PrefetchingCursor;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+/**
+ * Publishes the rows of a select statement read with a {@link Cursor}.
+ * <p>
+ * Every subscription opens a session of its own and a cursor on the first request, and maps a row only when the
+ * subscriber has asked for it, so the whole result is never held in memory. The outstanding demand is given to the
+ * driver as the fetch size, and a cursor that prefetches its rows is read without its producer so it does not read
+ * ahead of the demand. The cursor and the session are closed when the rows are exhausted, when reading fails and when
+ * the subscription is cancelled.
+ * <p>
+ * A cursor ends at the first row mapped to null, for instance a row whose columns are all null when
+ * {@code returnInstanceForEmptyRow} is disabled, so the subscription completes there as well. A cursor returning a
+ * null row before its end fails the subscription with a {@link NullPointerException}, as null rows cannot be
+ * published.
+ * <p>
+ * Rows are read by the thread that requests them, or by the given executor so the subscriber is not blocked by the
+ * database. Either way a subscription reads its rows by one thread at a time.
+ *
+ * @param <T> the type of the rows
+ * @since 3.5.3
+ */
+public class CursorPublisher<T> implements Flow.Publisher<T> {
+
+  private static final int MAX_FETCH_SIZE = 1000;
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final String statement;
+  private final Object parameter;
+  private final RowBounds rowBounds;
+  private final Executor executor;
+
+  public CursorPublisher(SqlSessionFactory sqlSessionFactory, String statement, Object parameter) {
+    this(sqlSessionFactory, statement, parameter, RowBounds.DEFAULT, null);
+  }
+
+  /**
+   * @param sqlSessionFactory the factory of the sessions of the subscriptions
+   * @param statement the id of the select statement
+   * @param parameter the parameter object of the statement
+   * @param rowBounds the bounds of the rows
+   * @param executor the executor reading the rows, or {@code null} to read them on the requesting thread
+   */
+  public CursorPublisher(SqlSessionFactory sqlSessionFactory, String statement, Object parameter,
+      RowBounds rowBounds, Executor executor) {
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.statement = statement;
+    this.parameter = parameter;
+    this.rowBounds = rowBounds;
+    this.executor = executor;
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super T> subscriber) {
+    if (subscriber == null) {
+      throw new NullPointerException("subscriber");
+    }
+    subscriber.onSubscribe(new CursorSubscription(subscriber));
+  }
+
+  private class CursorSubscription implements Flow.Subscription, Runnable {
+
+    private final Flow.Subscriber<? super T> subscriber;
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger pendingDrains = new AtomicInteger();
+    private volatile boolean cancelled;
+    private volatile Throwable invalidRequest;
+
+    // only accessed by the thread draining the subscription
+    private SqlSession sqlSession;
+    private Cursor<T> cursor;
+    private Iterator<T> iterator;
+    private int fetchSize;
+    private boolean terminated;
+
+    CursorSubscription(Flow.Subscriber<? super T> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        invalidRequest = new IllegalArgumentException("Requested " + n + " rows, the request must be positive.");
+      } else {
+        long current;
+        do {
+          current = requested.get();
+        } while (current != Long.MAX_VALUE
+            && !requested.compareAndSet(current, current + n < 0 ? Long.MAX_VALUE : current + n));
+      }
+      scheduleDrain();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+      // whoever takes the count from zero drains, a request made while draining is picked up by the same loop
+      if (pendingDrains.getAndIncrement() == 0) {
+        if (executor == null) {
+          run();
+        } else {
+          executor.execute(this);
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      int missed = 1;
+      do {
+        drain();
+        missed = pendingDrains.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private void drain() {
+      if (terminated) {
+        return;
+      }
+      if (cancelled) {
+        terminate();
+        return;
+      }
+      if (invalidRequest != null) {
+        terminate();
+        subscriber.onError(invalidRequest);
+        return;
+      }
+      long demand = requested.get();
+      if (demand == 0) {
+        return;
+      }
+      long emitted = 0;
+      try {
+        open(demand);
+      } catch (RuntimeException e) {
+        terminate();
+        subscriber.onError(e);
+        return;
+      }
+      while (emitted != demand) {
+        if (cancelled) {
+          terminate();
+          return;
+        }
+        T row = null;
+        boolean hasNext;
+        try {
+          hasNext = iterator.hasNext();
+          if (hasNext) {
+            row = iterator.next();
+          }
+        } catch (RuntimeException e) {
+          terminate();
+          subscriber.onError(e);
+          return;
+        }
+        if (!hasNext) {
+          terminate();
+          subscriber.onComplete();
+          return;
+        }
+        if (row == null) {
+          terminate();
+          subscriber.onError(new NullPointerException("The cursor of " + statement + " returned a null row."));
+          return;
+        }
+        try {
+          subscriber.onNext(row);
+        } catch (RuntimeException e) {
+          // a subscriber that throws has broken the contract, it is treated as cancelled
+          terminate();
+          throw e;
+        }
+        emitted++;
+      }
+      if (demand != Long.MAX_VALUE) {
+        requested.addAndGet(-emitted);
+      }
+    }
+
+    private void open(long demand) {
+      if (iterator == null) {
+        sqlSession = sqlSessionFactory.openSession();
+        cursor = sqlSession.selectCursor(statement, parameter, rowBounds);
+        // the demand decides how many rows are read, a producer prefetching them would not follow it
+        while (cursor instanceof PrefetchingCursor) {
+          cursor = ((PrefetchingCursor<T>) cursor).getDelegate();
+        }
+        iterator = cursor.iterator();
+      }
+      if (demand != Long.MAX_VALUE && cursor instanceof DefaultCursor) {
+        int size = (int) Math.min(demand, MAX_FETCH_SIZE);
+        if (size != fetchSize) {
+          ((DefaultCursor<T>) cursor).setFetchSize(size);
+          fetchSize = size;
+        }
+      }
+    }
+
+    private void terminate() {
+      terminated = true;
+      try {
+        if (cursor != null) {
+          cursor.close();
+        }
+      } catch (IOException e) {
+        // ignore
+      } finally {
+        if (sqlSession != null) {
+          sqlSession.close();
+        }
+      }
+    }
+  }
+
+}
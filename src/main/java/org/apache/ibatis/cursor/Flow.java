@@ -0,0 +1,82 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor;
+
+/**
+ * Interfaces of a reactive stream with backpressure. They have the same methods and contracts as
+ * {@code java.util.concurrent.Flow}, that is not available on Java 8, so they can be bridged to it or to Reactive
+ * Streams with delegating adapters.
+ *
+ * @since 3.5.3
+ * @see CursorPublisher
+ */
+public final class Flow {
+
+  private Flow() {
+  }
+
+  /**
+   * A producer of items that are sent to subscribers as they request them.
+   *
+   * @param <T> the type of the items
+   */
+  @FunctionalInterface
+  public interface Publisher<T> {
+
+    /**
+     * Adds the subscriber, that is sent {@link Subscriber#onSubscribe(Subscription)} before any other signal.
+     *
+     * @param subscriber the subscriber
+     * @throws NullPointerException if the subscriber is null
+     */
+    void subscribe(Subscriber<? super T> subscriber);
+  }
+
+  /**
+   * A receiver of items. The methods of a subscriber are called by one thread at a time.
+   *
+   * @param <T> the type of the items
+   */
+  public interface Subscriber<T> {
+
+    void onSubscribe(Subscription subscription);
+
+    void onNext(T item);
+
+    void onError(Throwable throwable);
+
+    void onComplete();
+  }
+
+  /**
+   * Links a publisher and a subscriber.
+   */
+  public interface Subscription {
+
+    /**
+     * Adds n items to the demand of the subscriber.
+     *
+     * @param n the number of items, a non-positive value is signalled as an {@link IllegalArgumentException}
+     */
+    void request(long n);
+
+    /**
+     * Stops sending items to the subscriber, which may still receive items that are already on their way.
+     */
+    void cancel();
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -121,6 +121,23 @@ public class DefaultCursor<T> implements Cursor<T> {
     }
   }
 
+  /**
+   * Gives the driver a hint about the number of rows to fetch when more rows are needed.
+   *
+   * @param fetchSize the number of rows
+   * @since 3.5.3
+   */
+  public void setFetchSize(int fetchSize) {
+    if (isClosed()) {
+      return;
+    }
+    try {
+      rsw.getResultSet().setFetchSize(fetchSize);
+    } catch (SQLException e) {
+      // ignore, the driver keeps its fetch size
+    }
+  }
+
   protected T fetchNextUsingRowBound() {
     T result = fetchNextObjectFromDatabase();
     while (result != null && indexWithRowBound < rowBounds.getOffset()) {
@@ -0,0 +1,255 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.exceptions.PersistenceException;
+
+/**
+ * A cursor that reads the rows of another cursor on a producer thread into a bounded buffer, so the rows are fetched
+ * and mapped while the consumer processes the previous ones.
+ * <p>
+ * The producer starts when the iterator is retrieved and never gets more than the buffer size ahead of the consumer.
+ * It runs on the given executor, unless the executor runs it on the thread that retrieved the iterator (e.g. a direct
+ * executor or a {@code CallerRunsPolicy}), where it would block on the full buffer before a row is consumed; it then
+ * runs on a daemon thread started by the cursor.
+ * An exception thrown while reading the rows is thrown by the iterator once the rows read before it have been
+ * returned. Closing the cursor stops the producer and closes the underlying cursor.
+ * This implementation is not thread safe, it is meant to be consumed by one thread.
+ *
+ * @param <T> the type of the rows
+ * @since 3.5.3
+ */
+public class PrefetchingCursor<T> implements Cursor<T> {
+
+  private static final Object END = new Object();
+  private static final long PRODUCER_CHECK_MILLIS = 100;
+
+  private final Cursor<T> delegate;
+  private final BlockingQueue<Object> buffer;
+  private final Executor executor;
+  private final CountDownLatch producerDone = new CountDownLatch(1);
+  private final PrefetchingIterator cursorIterator = new PrefetchingIterator();
+  private final int startIndex;
+
+  private volatile Thread consumerThread;
+  private volatile boolean closed;
+  private volatile Throwable failure;
+  private boolean iteratorRetrieved;
+  private boolean started;
+  private boolean consumed;
+
+  public PrefetchingCursor(Cursor<T> delegate, int bufferSize, Executor executor) {
+    this.delegate = delegate;
+    this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    this.executor = executor;
+    this.startIndex = delegate.getCurrentIndex();
+  }
+
+  /**
+   * Returns the cursor whose rows are prefetched. A reader that decides itself how many rows are fetched can read it
+   * instead of this cursor, as long as the iterator of this cursor has not been retrieved and no producer is reading.
+   *
+   * @return the underlying cursor
+   */
+  public Cursor<T> getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public boolean isOpen() {
+    return started && !closed && !consumed;
+  }
+
+  @Override
+  public boolean isConsumed() {
+    return consumed;
+  }
+
+  @Override
+  public int getCurrentIndex() {
+    return startIndex + cursorIterator.iteratorIndex + 1;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    if (iteratorRetrieved) {
+      throw new IllegalStateException("Cannot open more than one iterator on a Cursor");
+    }
+    if (closed) {
+      throw new IllegalStateException("A Cursor is already closed.");
+    }
+    iteratorRetrieved = true;
+    consumerThread = Thread.currentThread();
+    executor.execute(this::startProducer);
+    started = true;
+    return cursorIterator;
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (started) {
+      // unblocks a producer waiting for room, which sees the cursor is closed once it has put its row
+      buffer.clear();
+      awaitProducer();
+    }
+    try {
+      delegate.close();
+    } catch (IOException e) {
+      // ignore
+    }
+  }
+
+  private void awaitProducer() {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        producerDone.await();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void startProducer() {
+    if (Thread.currentThread() == consumerThread) {
+      final Thread producer = new Thread(this::produce, "mybatis-cursor-prefetch");
+      producer.setDaemon(true);
+      producer.start();
+    } else {
+      produce();
+    }
+  }
+
+  private void produce() {
+    try {
+      Iterator<T> rows = delegate.iterator();
+      while (!closed && rows.hasNext()) {
+        buffer.put(rows.next());
+      }
+      if (!closed) {
+        buffer.put(END);
+      }
+    } catch (InterruptedException e) {
+      failure = e;
+      Thread.currentThread().interrupt();
+    } catch (Throwable t) {
+      failure = t;
+    } finally {
+      if (failure != null) {
+        buffer.offer(END);
+      }
+      producerDone.countDown();
+    }
+  }
+
+  private Object take() {
+    try {
+      Object row;
+      while ((row = buffer.poll(PRODUCER_CHECK_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+        // a producer that failed could not put the end of the rows into a full buffer
+        if (producerDone.getCount() == 0 && (row = buffer.poll()) == null) {
+          return END;
+        }
+      }
+      return row;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PersistenceException("Interrupted while waiting for the next row of the cursor.", e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private T fetchNext() {
+    if (closed || consumed) {
+      return null;
+    }
+    Object row = take();
+    if (row != END) {
+      return (T) row;
+    }
+    consumed = true;
+    close();
+    Throwable cause = failure;
+    if (cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    } else if (cause instanceof Error) {
+      throw (Error) cause;
+    } else if (cause != null) {
+      throw new PersistenceException("Error prefetching the rows of the cursor.  Cause: " + cause, cause);
+    }
+    return null;
+  }
+
+  private class PrefetchingIterator implements Iterator<T> {
+
+    /**
+     * Holder for the next object to be returned.
+     */
+    T object;
+
+    /**
+     * Index of objects returned using next(), and as such, visible to users.
+     */
+    int iteratorIndex = -1;
+
+    @Override
+    public boolean hasNext() {
+      if (object == null) {
+        object = fetchNext();
+      }
+      return object != null;
+    }
+
+    @Override
+    public T next() {
+      T next = object;
+
+      if (next == null) {
+        next = fetchNext();
+      }
+
+      if (next != null) {
+        object = null;
+        iteratorIndex++;
+        return next;
+      }
+      throw new NoSuchElementException();
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("Cannot remove element from Cursor");
+    }
+  }
+}
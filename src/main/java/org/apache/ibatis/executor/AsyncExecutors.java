@@ -0,0 +1,69 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Provides the executor of the work done off the calling thread, such as mapper methods that return a
+ * {@code CompletableFuture} and prefetching cursors.
+ *
+ * @since 3.5.3
+ */
+public final class AsyncExecutors {
+
+  private AsyncExecutors() {
+  }
+
+  /**
+   * @param configuration the configuration
+   * @return the executor set by {@link Configuration#setAsyncExecutor(Executor)}, or the default executor if not set
+   */
+  public static Executor getExecutor(Configuration configuration) {
+    final Executor executor = configuration.getAsyncExecutor();
+    return executor == null ? DefaultExecutorHolder.EXECUTOR : executor;
+  }
+
+  private static final class DefaultExecutorHolder {
+
+    private static final Executor EXECUTOR = createDefaultExecutor();
+
+    private static Executor createDefaultExecutor() {
+      try {
+        // Java 21+: statements mostly wait on the database, which virtual threads do cheaply
+        final Method factoryMethod = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        return (ExecutorService) factoryMethod.invoke(null);
+      } catch (ReflectiveOperationException e) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ThreadFactory threadFactory = runnable -> {
+          final Thread thread = new Thread(runnable, "mybatis-async-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        };
+        return Executors.newCachedThreadPool(threadFactory);
+      }
+    }
+
+  }
+
+}
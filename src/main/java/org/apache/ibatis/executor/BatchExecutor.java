@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,11 +17,14 @@ package org.apache.ibatis.executor;
 
 import java.sql.BatchUpdateException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
@@ -30,6 +33,9 @@ import org.apache.ibatis.executor.keygen.NoKeyGenerator;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.PropertyReader;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -42,10 +48,16 @@ public class BatchExecutor extends BaseExecutor {
 
   public static final int BATCH_UPDATE_RETURN_VALUE = Integer.MIN_VALUE + 1002;
 
+  private static final int ROW_OVERHEAD_BYTES = 16;
+
   private final List<Statement> statementList = new ArrayList<>();
+  private final List<MultiRowInsert> multiRowInsertList = new ArrayList<>();
   private final List<BatchResult> batchResultList = new ArrayList<>();
+  private final Map<String, Integer> statementIndexes = new HashMap<>();
   private String currentSql;
   private MappedStatement currentStatement;
+  private int batchedCount;
+  private long batchedBytes;
 
   public BatchExecutor(Configuration configuration, Transaction transaction) {
     super(configuration, transaction);
@@ -57,27 +69,114 @@ public class BatchExecutor extends BaseExecutor {
     final StatementHandler handler = configuration.newStatementHandler(this, ms, parameterObject, RowBounds.DEFAULT, null, null);
     final BoundSql boundSql = handler.getBoundSql();
     final String sql = boundSql.getSql();
-    final Statement stmt;
-    if (sql.equals(currentSql) && ms.equals(currentStatement)) {
-      int last = statementList.size() - 1;
-      stmt = statementList.get(last);
-      applyTransactionTimeout(stmt);
-      handler.parameterize(stmt);//fix Issues 322
-      BatchResult batchResult = batchResultList.get(last);
+    final int index = indexOfBatch(ms, sql);
+    if (index >= 0) {
+      MultiRowInsert multiRowInsert = multiRowInsertList.get(index);
+      if (multiRowInsert != null) {
+        multiRowInsert.addRow(handler, getConnection(ms.getStatementLog()));
+      } else {
+        Statement stmt = statementList.get(index);
+        applyTransactionTimeout(stmt);
+        handler.parameterize(stmt);//fix Issues 322
+        handler.batch(stmt);
+      }
+      BatchResult batchResult = batchResultList.get(index);
       batchResult.addParameterObject(parameterObject);
     } else {
-      Connection connection = getConnection(ms.getStatementLog());
-      stmt = handler.prepare(connection, transaction.getTimeout());
-      handler.parameterize(stmt);    //fix Issues 322
+      Statement stmt = null;
+      MultiRowInsert multiRowInsert = configuration.getMultiRowInsertSize() > 1
+          ? MultiRowInsert.of(ms, sql, boundSql.getParameterMappings().size()) : null;
+      if (multiRowInsert != null) {
+        // the parameters are recorded now and set on the statement prepared when the rows are executed together
+        multiRowInsert.addRow(handler, getConnection(ms.getStatementLog()));
+      } else {
+        Connection connection = getConnection(ms.getStatementLog());
+        stmt = handler.prepare(connection, transaction.getTimeout());
+        handler.parameterize(stmt);    //fix Issues 322
+        handler.batch(stmt);
+      }
       currentSql = sql;
       currentStatement = ms;
       statementList.add(stmt);
+      multiRowInsertList.add(multiRowInsert);
       batchResultList.add(new BatchResult(ms, sql, parameterObject));
+      if (configuration.isBatchGroupingEnabled()) {
+        statementIndexes.put(sql, statementList.size() - 1);
+      }
+    }
+    if (isFlushRequired(ms, boundSql, parameterObject)) {
+      // the results of automatic flushes are not kept, as keeping their parameter objects is what the limits prevent
+      flushStatements();
     }
-    handler.batch(stmt);
     return BATCH_UPDATE_RETURN_VALUE;
   }
 
+  private int indexOfBatch(MappedStatement ms, String sql) {
+    if (configuration.isBatchGroupingEnabled()) {
+      Integer index = statementIndexes.get(sql);
+      return index != null && batchResultList.get(index).getMappedStatement().equals(ms) ? index : -1;
+    }
+    return sql.equals(currentSql) && ms.equals(currentStatement) ? statementList.size() - 1 : -1;
+  }
+
+  private boolean isFlushRequired(MappedStatement ms, BoundSql boundSql, Object parameterObject) {
+    batchedCount++;
+    int flushSize = configuration.getBatchFlushSize();
+    if (flushSize > 0 && batchedCount >= flushSize) {
+      return true;
+    }
+    int flushBytes = configuration.getBatchFlushBytes();
+    if (flushBytes > 0) {
+      batchedBytes += estimateParameterBytes(ms, boundSql, parameterObject);
+      return batchedBytes >= flushBytes;
+    }
+    return false;
+  }
+
+  private long estimateParameterBytes(MappedStatement ms, BoundSql boundSql, Object parameterObject) {
+    long bytes = ROW_OVERHEAD_BYTES;
+    List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+    if (parameterMappings == null || parameterObject == null) {
+      return bytes;
+    }
+    boolean hasTypeHandler = configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass());
+    MetaObject metaObject = null;
+    for (ParameterMapping parameterMapping : parameterMappings) {
+      String property = parameterMapping.getProperty();
+      Object value;
+      if (boundSql.hasAdditionalParameter(property)) {
+        value = boundSql.getAdditionalParameter(property);
+      } else if (hasTypeHandler) {
+        value = parameterObject;
+      } else {
+        PropertyReader reader = ms.getParameterReader(parameterObject.getClass(), property);
+        if (reader.isReadable()) {
+          value = reader.getValue(parameterObject);
+        } else {
+          if (metaObject == null) {
+            metaObject = configuration.newMetaObject(parameterObject);
+          }
+          value = metaObject.getValue(property);
+        }
+      }
+      bytes += estimateValueBytes(value);
+    }
+    return bytes;
+  }
+
+  private static long estimateValueBytes(Object value) {
+    if (value == null) {
+      return 0;
+    } else if (value instanceof CharSequence) {
+      return 2L * ((CharSequence) value).length();
+    } else if (value instanceof byte[]) {
+      return ((byte[]) value).length;
+    } else if (value instanceof char[]) {
+      return 2L * ((char[]) value).length;
+    }
+    return 8;
+  }
+
   @Override
   public <E> List<E> doQuery(MappedStatement ms, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql)
       throws SQLException {
@@ -115,9 +214,19 @@ public class BatchExecutor extends BaseExecutor {
         return Collections.emptyList();
       }
       for (int i = 0, n = statementList.size(); i < n; i++) {
+        BatchResult batchResult = batchResultList.get(i);
+        MultiRowInsert multiRowInsert = multiRowInsertList.get(i);
+        if (multiRowInsert != null) {
+          try {
+            batchResult.setUpdateCounts(executeMultiRowInsert(multiRowInsert, batchResult));
+          } catch (BatchUpdateException e) {
+            throw new BatchExecutorException(batchFailureMessage(batchResult, i), e, results, batchResult);
+          }
+          results.add(batchResult);
+          continue;
+        }
         Statement stmt = statementList.get(i);
         applyTransactionTimeout(stmt);
-        BatchResult batchResult = batchResultList.get(i);
         try {
           batchResult.setUpdateCounts(stmt.executeBatch());
           MappedStatement ms = batchResult.getMappedStatement();
@@ -134,18 +243,7 @@ public class BatchExecutor extends BaseExecutor {
           // Close statement to close cursor #1109
           closeStatement(stmt);
         } catch (BatchUpdateException e) {
-          StringBuilder message = new StringBuilder();
-          message.append(batchResult.getMappedStatement().getId())
-              .append(" (batch index #")
-              .append(i + 1)
-              .append(")")
-              .append(" failed.");
-          if (i > 0) {
-            message.append(" ")
-                .append(i)
-                .append(" prior sub executor(s) completed successfully, but will be rolled back.");
-          }
-          throw new BatchExecutorException(message.toString(), e, results, batchResult);
+          throw new BatchExecutorException(batchFailureMessage(batchResult, i), e, results, batchResult);
         }
         results.add(batchResult);
       }
@@ -155,9 +253,78 @@ public class BatchExecutor extends BaseExecutor {
         closeStatement(stmt);
       }
       currentSql = null;
+      currentStatement = null;
       statementList.clear();
+      multiRowInsertList.clear();
       batchResultList.clear();
+      statementIndexes.clear();
+      batchedCount = 0;
+      batchedBytes = 0;
+    }
+  }
+
+  private String batchFailureMessage(BatchResult batchResult, int i) {
+    StringBuilder message = new StringBuilder();
+    message.append(batchResult.getMappedStatement().getId())
+        .append(" (batch index #")
+        .append(i + 1)
+        .append(")")
+        .append(" failed.");
+    if (i > 0) {
+      message.append(" ")
+          .append(i)
+          .append(" prior sub executor(s) completed successfully, but will be rolled back.");
+    }
+    return message.toString();
+  }
+
+  private int[] executeMultiRowInsert(MultiRowInsert multiRowInsert, BatchResult batchResult) throws SQLException {
+    final MappedStatement ms = batchResult.getMappedStatement();
+    final int rowCount = multiRowInsert.getRowCount();
+    final List<Object> parameterObjects = batchResult.getParameterObjects();
+    final int parametersPerRow = multiRowInsert.getParametersPerRow();
+    int rowsPerStatement = configuration.getMultiRowInsertSize();
+    int maxParameters = configuration.getMultiRowInsertMaxParameters();
+    if (maxParameters > 0 && parametersPerRow > 0) {
+      rowsPerStatement = Math.max(1, Math.min(rowsPerStatement, maxParameters / parametersPerRow));
+    }
+    final int[] updateCounts = new int[rowCount];
+    PreparedStatement ps = null;
+    int preparedRows = 0;
+    try {
+      for (int start = 0; start < rowCount; start += rowsPerStatement) {
+        int end = Math.min(start + rowsPerStatement, rowCount);
+        if (end - start != preparedRows) {
+          // every chunk but the last has the same size, so the statement is prepared at most twice
+          closeStatement(ps);
+          ps = prepareMultiRowInsert(ms, multiRowInsert.getSql(end - start), parameterObjects.get(start));
+          preparedRows = end - start;
+        }
+        for (int row = start; row < end; row++) {
+          multiRowInsert.setParameters(row, ps, (row - start) * parametersPerRow);
+        }
+        int updateCount = ps.executeUpdate();
+        for (int row = start; row < end; row++) {
+          updateCounts[row] = updateCount == end - start ? 1 : Statement.SUCCESS_NO_INFO;
+        }
+        if (Jdbc3KeyGenerator.class.equals(ms.getKeyGenerator().getClass())) {
+          ((Jdbc3KeyGenerator) ms.getKeyGenerator()).processBatch(ms, ps, new ArrayList<>(parameterObjects.subList(start, end)));
+        }
+      }
+      return updateCounts;
+    } catch (SQLException e) {
+      throw new BatchUpdateException(e.getMessage(), e.getSQLState(), e.getErrorCode(), new int[0], e);
+    } finally {
+      closeStatement(ps);
     }
   }
 
+  private PreparedStatement prepareMultiRowInsert(MappedStatement ms, String sql, Object parameterObject) throws SQLException {
+    // prepared by a handler of its own so plugins, timeouts and generated key columns apply as for any statement
+    BoundSql boundSql = new BoundSql(configuration, sql, Collections.emptyList(), parameterObject);
+    StatementHandler handler = configuration.newStatementHandler(this, ms, parameterObject, RowBounds.DEFAULT, null, boundSql);
+    Connection connection = getConnection(ms.getStatementLog());
+    return (PreparedStatement) handler.prepare(connection, transaction.getTimeout());
+  }
+
 }
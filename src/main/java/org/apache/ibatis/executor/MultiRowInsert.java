@@ -0,0 +1,265 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+
+/**
+ * The rows of a batched single-row {@code INSERT ... VALUES (...)} that are executed as multi-row inserts.
+ */
+final class MultiRowInsert {
+
+  private final String prefix;
+  private final String values;
+  private final int parametersPerRow;
+  private final List<RecordedRow> rows = new ArrayList<>();
+
+  private MultiRowInsert(String prefix, String values, int parametersPerRow) {
+    this.prefix = prefix;
+    this.values = values;
+    this.parametersPerRow = parametersPerRow;
+  }
+
+  /**
+   * Returns the rows of the statement, or {@code null} if the statement cannot be rewritten.
+   */
+  static MultiRowInsert of(MappedStatement ms, String sql, int parameterCount) {
+    if (ms.getSqlCommandType() != SqlCommandType.INSERT || ms.getStatementType() != StatementType.PREPARED) {
+      return null;
+    }
+    Class<?> keyGeneratorType = ms.getKeyGenerator().getClass();
+    if (!NoKeyGenerator.class.equals(keyGeneratorType) && !Jdbc3KeyGenerator.class.equals(keyGeneratorType)) {
+      // other key generators run statements of their own for every row
+      return null;
+    }
+    int valuesStart = indexOfValues(sql);
+    if (valuesStart < 0) {
+      return null;
+    }
+    int groupStart = valuesStart + "values".length();
+    while (groupStart < sql.length() && Character.isWhitespace(sql.charAt(groupStart))) {
+      groupStart++;
+    }
+    if (groupStart == sql.length() || sql.charAt(groupStart) != '(') {
+      return null;
+    }
+    int groupEnd = indexOfClosingParenthesis(sql, groupStart);
+    if (groupEnd < 0 || !sql.substring(groupEnd + 1).trim().isEmpty()) {
+      return null;
+    }
+    String values = sql.substring(groupStart, groupEnd + 1);
+    if (countPlaceholders(values) != parameterCount || countPlaceholders(sql.substring(0, groupStart)) != 0) {
+      return null;
+    }
+    return new MultiRowInsert(sql.substring(0, groupStart), values, parameterCount);
+  }
+
+  /**
+   * Sets the parameters of a row through its handler right away, as {@code addBatch} would, so that the values are
+   * those of the parameter object when the row is added even if the object is changed and added again later.
+   *
+   * @param handler the handler of the row
+   * @param connection the connection returned to type handlers asking the statement for it
+   */
+  void addRow(StatementHandler handler, Connection connection) throws SQLException {
+    RecordedRow row = new RecordedRow(connection);
+    handler.parameterize((PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+        new Class<?>[] { PreparedStatement.class }, row));
+    rows.add(row);
+  }
+
+  int getRowCount() {
+    return rows.size();
+  }
+
+  /**
+   * Sets the recorded parameters of a row on the statement of the rows, shifted by the parameters of the rows before it.
+   */
+  void setParameters(int row, PreparedStatement ps, int offset) throws SQLException {
+    rows.get(row).setParameters(ps, offset);
+  }
+
+  int getParametersPerRow() {
+    return parametersPerRow;
+  }
+
+  String getSql(int rowCount) {
+    StringBuilder sql = new StringBuilder(prefix.length() + rowCount * (values.length() + 2));
+    sql.append(prefix);
+    for (int i = 0; i < rowCount; i++) {
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append(values);
+    }
+    return sql.toString();
+  }
+
+  private static boolean isParameterSetter(Method method) {
+    // setters declared by Statement, such as setFetchSize, do not take a parameter index
+    return method.getDeclaringClass() == PreparedStatement.class && method.getName().startsWith("set")
+        && method.getParameterCount() > 0 && method.getParameterTypes()[0] == int.class;
+  }
+
+  private static int indexOfValues(String sql) {
+    String lowerSql = sql.toLowerCase(Locale.ENGLISH);
+    if (!lowerSql.trim().startsWith("insert")) {
+      return -1;
+    }
+    int depth = 0;
+    char quote = 0;
+    for (int i = 0; i < sql.length(); i++) {
+      char c = sql.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '\'' || c == '"' || c == '`') {
+        quote = c;
+      } else if (c == '(') {
+        depth++;
+      } else if (c == ')') {
+        depth--;
+      } else if (depth == 0 && lowerSql.startsWith("values", i) && isWordBoundary(sql, i - 1)
+          && isWordBoundary(sql, i + "values".length())) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isWordBoundary(String sql, int index) {
+    return index < 0 || index >= sql.length() || !Character.isLetterOrDigit(sql.charAt(index)) && sql.charAt(index) != '_';
+  }
+
+  private static int indexOfClosingParenthesis(String sql, int start) {
+    int depth = 0;
+    char quote = 0;
+    for (int i = start; i < sql.length(); i++) {
+      char c = sql.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '\'' || c == '"' || c == '`') {
+        quote = c;
+      } else if (c == '(') {
+        depth++;
+      } else if (c == ')' && --depth == 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int countPlaceholders(String sql) {
+    int count = 0;
+    char quote = 0;
+    for (int i = 0; i < sql.length(); i++) {
+      char c = sql.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '\'' || c == '"' || c == '`') {
+        quote = c;
+      } else if (c == '?') {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * The parameters set on a row by its parameter handler, in the order they were set.
+   */
+  private static final class RecordedRow implements InvocationHandler {
+
+    private final Connection connection;
+    private final List<Method> setters = new ArrayList<>();
+    private final List<Object[]> arguments = new ArrayList<>();
+
+    RecordedRow(Connection connection) {
+      this.connection = connection;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (isParameterSetter(method)) {
+        setters.add(method);
+        arguments.add(args.clone());
+        return null;
+      }
+      switch (method.getName()) {
+        case "getConnection":
+          return connection;
+        case "clearParameters":
+          setters.clear();
+          arguments.clear();
+          return null;
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return "Parameters of a row of a multi-row insert";
+        default:
+          throw new SQLFeatureNotSupportedException("The parameters of a row of a multi-row insert are recorded, "
+              + method.getName() + " cannot be called while setting them.");
+      }
+    }
+
+    void setParameters(PreparedStatement ps, int offset) throws SQLException {
+      for (int i = 0; i < setters.size(); i++) {
+        Object[] args = arguments.get(i).clone();
+        args[0] = (Integer) args[0] + offset;
+        try {
+          setters.get(i).invoke(ps, args);
+        } catch (IllegalAccessException e) {
+          throw new SQLException("Could not set parameter " + args[0] + " of a multi-row insert.", e);
+        } catch (InvocationTargetException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof SQLException) {
+            throw (SQLException) cause;
+          } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          } else if (cause instanceof Error) {
+            throw (Error) cause;
+          }
+          throw new SQLException("Could not set parameter " + args[0] + " of a multi-row insert.", cause);
+        }
+      }
+    }
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2018 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -32,6 +32,7 @@ import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
 
 /**
  * @author Clinton Begin
@@ -39,9 +40,13 @@ import org.apache.ibatis.transaction.Transaction;
 public class ReuseExecutor extends BaseExecutor {
 
   private final Map<String, Statement> statementMap = new HashMap<>();
+  private final StatementCache statementCache;
+  private Connection cachingConnection;
+  private boolean closing;
 
   public ReuseExecutor(Configuration configuration, Transaction transaction) {
     super(configuration, transaction);
+    this.statementCache = configuration.getStatementCacheSize() > 0 ? configuration.getStatementCache() : null;
   }
 
   @Override
@@ -69,11 +74,39 @@ public class ReuseExecutor extends BaseExecutor {
   }
 
   @Override
-  public List<BatchResult> doFlushStatements(boolean isRollback) {
-    for (Statement stmt : statementMap.values()) {
-      closeStatement(stmt);
+  public void close(boolean forceRollback) {
+    // the rollback flushing the statements then keeps them only if the connection goes back to a pool
+    closing = true;
+    try {
+      super.close(forceRollback);
+    } finally {
+      if (cachingConnection != null) {
+        // a pool closes the physical connection when it has no room for it
+        statementCache.evictIfClosed(cachingConnection);
+        cachingConnection = null;
+      }
+    }
+  }
+
+  @Override
+  public List<BatchResult> doFlushStatements(boolean isRollback) throws SQLException {
+    if (statementCache != null && !statementMap.isEmpty() && (!closing || isPooledConnection())) {
+      // statements outlive the session on its connection, which a pool hands to another session later
+      cachingConnection = StatementCache.unwrap(transaction.getConnection());
+      for (Map.Entry<String, Statement> entry : statementMap.entrySet()) {
+        statementCache.release(cachingConnection, entry.getKey(), entry.getValue());
+      }
+    } else {
+      for (Statement stmt : statementMap.values()) {
+        closeStatement(stmt);
+      }
     }
     statementMap.clear();
+    if (closing && cachingConnection != null && !isPooledConnection()) {
+      // the connection is closed, or returned to a pool of a container that may close it at any time
+      statementCache.evict(cachingConnection);
+      cachingConnection = null;
+    }
     return Collections.emptyList();
   }
 
@@ -86,13 +119,22 @@ public class ReuseExecutor extends BaseExecutor {
       applyTransactionTimeout(stmt);
     } else {
       Connection connection = getConnection(statementLog);
-      stmt = handler.prepare(connection, transaction.getTimeout());
+      stmt = statementCache == null ? null : statementCache.borrow(transaction.getConnection(), sql);
+      if (stmt == null) {
+        stmt = handler.prepare(connection, transaction.getTimeout());
+      } else {
+        applyTransactionTimeout(stmt);
+      }
       putStatement(sql, stmt);
     }
     handler.parameterize(stmt);
     return stmt;
   }
 
+  private boolean isPooledConnection() throws SQLException {
+    return transaction instanceof JdbcTransaction && StatementCache.isPooled(transaction.getConnection());
+  }
+
   private boolean hasStatementFor(String sql) {
     try {
       return statementMap.keySet().contains(sql) && !statementMap.get(sql).getConnection().isClosed();
@@ -0,0 +1,248 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prepared statements kept open between sessions, keyed by the physical connection they were prepared on and their SQL.
+ * <p>
+ * A {@link ReuseExecutor} borrows the statements of the connection of its transaction and releases them when it flushes
+ * its statements, so a statement is used by one session at a time. The statements of a pooled connection of a JDBC
+ * transaction stay in the cache while the connection waits in the pool, and are evicted once the physical connection
+ * is closed. The statements of other connections are evicted when their session is closed. When more statements than
+ * the maximum size are released, the least recently used ones are closed. Statements whose connection has been closed
+ * are discarded when they are borrowed.
+ *
+ * @since 3.5.3
+ */
+public class StatementCache {
+
+  private final Map<StatementKey, Statement> statements = new LinkedHashMap<>(16, 0.75f, true);
+  private int maxSize;
+  private long hits;
+  private long misses;
+
+  public StatementCache(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Removes the statement prepared for the SQL on the connection from the cache.
+   *
+   * @param connection the connection of the transaction
+   * @param sql the SQL of the statement
+   * @return the statement, or {@code null} if there is none that is still open
+   */
+  public Statement borrow(Connection connection, String sql) {
+    Statement stmt;
+    synchronized (this) {
+      stmt = statements.remove(new StatementKey(unwrap(connection), sql));
+    }
+    if (stmt != null && !isUsable(stmt)) {
+      closeStatement(stmt);
+      stmt = null;
+    }
+    synchronized (this) {
+      if (stmt == null) {
+        misses++;
+      } else {
+        hits++;
+      }
+    }
+    return stmt;
+  }
+
+  /**
+   * Puts a statement back into the cache, closing the least recently used statements that do not fit.
+   *
+   * @param connection the connection of the transaction
+   * @param sql the SQL of the statement
+   * @param stmt the statement
+   */
+  public void release(Connection connection, String sql, Statement stmt) {
+    List<Statement> evicted = new ArrayList<>();
+    synchronized (this) {
+      Statement previous = statements.put(new StatementKey(unwrap(connection), sql), stmt);
+      if (previous != null && previous != stmt) {
+        evicted.add(previous);
+      }
+      evictEldest(maxSize, evicted);
+    }
+    // statements are closed outside the lock as closing may wait for the driver
+    evicted.forEach(StatementCache::closeStatement);
+  }
+
+  /**
+   * Closes the statements prepared on a connection whose physical connection has been closed.
+   *
+   * @param connection the physical connection, or a connection of a transaction that is still open
+   */
+  public void evictIfClosed(Connection connection) {
+    // the proxy of a pool cannot be unwrapped any more once the connection is back in the pool
+    final Connection physicalConnection = unwrap(connection);
+    boolean closed;
+    try {
+      closed = physicalConnection.isClosed();
+    } catch (SQLException e) {
+      closed = true;
+    }
+    if (closed) {
+      evict(physicalConnection);
+    }
+  }
+
+  /**
+   * Closes the statements prepared on a connection, which is about to be closed or returned to a pool.
+   *
+   * @param connection the connection of the transaction
+   */
+  public void evict(Connection connection) {
+    final Connection physicalConnection = unwrap(connection);
+    List<Statement> evicted = new ArrayList<>();
+    synchronized (this) {
+      Iterator<Map.Entry<StatementKey, Statement>> entries = statements.entrySet().iterator();
+      while (entries.hasNext()) {
+        Map.Entry<StatementKey, Statement> entry = entries.next();
+        if (entry.getKey().connection == physicalConnection) {
+          evicted.add(entry.getValue());
+          entries.remove();
+        }
+      }
+    }
+    evicted.forEach(StatementCache::closeStatement);
+  }
+
+  public void setMaxSize(int maxSize) {
+    List<Statement> evicted = new ArrayList<>();
+    synchronized (this) {
+      this.maxSize = maxSize;
+      evictEldest(maxSize, evicted);
+    }
+    evicted.forEach(StatementCache::closeStatement);
+  }
+
+  /**
+   * Closes all the statements of the cache.
+   */
+  public void clear() {
+    setMaxSize(0);
+  }
+
+  public synchronized int getSize() {
+    return statements.size();
+  }
+
+  public synchronized int getMaxSize() {
+    return maxSize;
+  }
+
+  public synchronized long getHitCount() {
+    return hits;
+  }
+
+  public synchronized long getMissCount() {
+    return misses;
+  }
+
+  /**
+   * @return the ratio of borrowed statements that were found in the cache, or {@code 0} if none was borrowed
+   */
+  public synchronized double getHitRatio() {
+    long requests = hits + misses;
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+
+  private void evictEldest(int size, List<Statement> evicted) {
+    Iterator<Statement> eldest = statements.values().iterator();
+    while (statements.size() > size && eldest.hasNext()) {
+      evicted.add(eldest.next());
+      eldest.remove();
+    }
+  }
+
+  /**
+   * @return whether the connection is a proxy of a pool handing out the physical connection again later
+   */
+  static boolean isPooled(Connection connection) {
+    return unwrap(connection) != connection;
+  }
+
+  /**
+   * @return the physical connection of the connection of a transaction
+   */
+  static Connection unwrap(Connection connection) {
+    // pools hand out a new proxy of the physical connection on every checkout
+    try {
+      Connection physical = connection.unwrap(Connection.class);
+      return physical == null ? connection : physical;
+    } catch (SQLException | RuntimeException e) {
+      return connection;
+    }
+  }
+
+  private static boolean isUsable(Statement stmt) {
+    try {
+      return !stmt.isClosed() && !stmt.getConnection().isClosed();
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  private static void closeStatement(Statement stmt) {
+    try {
+      stmt.close();
+    } catch (SQLException e) {
+      // ignore
+    }
+  }
+
+  private static final class StatementKey {
+
+    private final Connection connection;
+    private final String sql;
+
+    StatementKey(Connection connection, String sql) {
+      this.connection = connection;
+      this.sql = sql;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof StatementKey)) {
+        return false;
+      }
+      StatementKey other = (StatementKey) o;
+      return connection == other.connection && sql.equals(other.sql);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(connection) + sql.hashCode();
+    }
+  }
+
+}
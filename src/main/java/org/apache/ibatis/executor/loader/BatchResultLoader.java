@@ -0,0 +1,271 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ResultExtractor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Loads the values of a nested select for many result objects with a single execution of its batch select.
+ * <p>
+ * The batch select receives the nested select parameters of the pending loads as a list named {@code list} (or
+ * {@code collection}) and returns the rows of all of them. Each returned object is given back to the loads whose key
+ * equals the values of its {@code batchKey} properties, in the order the batch select returned them.
+ * <p>
+ * Eager loads are all loaded by {@link #load()}. Lazy loads are loaded when the first of them is triggered, together
+ * with the pending lazy loads that follow it and then those before it. The rows of the other loads are kept until
+ * their own lazy loaders are triggered, so the properties of a result object are only set by its own lazy loader,
+ * under the lock of its proxy.
+ *
+ * @since 3.5.3
+ */
+public class BatchResultLoader {
+
+  protected final Configuration configuration;
+  protected final Executor executor;
+  protected final MappedStatement mappedStatement;
+  protected final ResultMapping resultMapping;
+  protected final ResultExtractor resultExtractor;
+  protected final long creatorThreadId;
+
+  private final Map<Object, Object> parameterObjects = new LinkedHashMap<>();
+  private final Map<Object, List<PendingLoad>> pendingLoads = new LinkedHashMap<>();
+  private final Map<Object, List<ResultLoader>> pendingLazyLoads = new LinkedHashMap<>();
+  private final Map<ResultLoader, List<Object>> loadedRows = new IdentityHashMap<>();
+
+  public BatchResultLoader(Configuration configuration, Executor executor, ResultMapping resultMapping) {
+    this.configuration = configuration;
+    this.executor = executor;
+    this.mappedStatement = configuration.getMappedStatement(resultMapping.getNestedBatchQueryId());
+    this.resultMapping = resultMapping;
+    this.resultExtractor = new ResultExtractor(configuration, configuration.getObjectFactory());
+    this.creatorThreadId = Thread.currentThread().getId();
+  }
+
+  /**
+   * Registers a property to be set with the rows the nested select would return for the given parameter object.
+   */
+  public synchronized void addLoad(MetaObject metaResultObject, String property, Object parameterObject) {
+    final Object key = createKey(parameterObject);
+    parameterObjects.putIfAbsent(key, parameterObject);
+    pendingLoads.computeIfAbsent(key, k -> new ArrayList<>()).add(new PendingLoad(metaResultObject, property));
+  }
+
+  /**
+   * Registers the result loader of a lazy loaded property, which is loaded with its siblings when one of them is
+   * triggered.
+   */
+  public synchronized void addLazyLoad(ResultLoader resultLoader) {
+    final Object key = createKey(resultLoader.parameterObject);
+    parameterObjects.putIfAbsent(key, resultLoader.parameterObject);
+    pendingLazyLoads.computeIfAbsent(key, k -> new ArrayList<>()).add(resultLoader);
+  }
+
+  /**
+   * Removes the result loader of a lazy loaded property that was set, so it is neither loaded nor kept any more.
+   */
+  public synchronized void removeLazyLoad(ResultLoader resultLoader) {
+    if (loadedRows.remove(resultLoader) != null) {
+      return;
+    }
+    final Object key = createKey(resultLoader.parameterObject);
+    final List<ResultLoader> loads = pendingLazyLoads.get(key);
+    if (loads != null && loads.remove(resultLoader) && loads.isEmpty()) {
+      pendingLazyLoads.remove(key);
+      parameterObjects.remove(key);
+    }
+  }
+
+  public synchronized boolean isEmpty() {
+    return pendingLoads.isEmpty() && pendingLazyLoads.isEmpty() && loadedRows.isEmpty();
+  }
+
+  /**
+   * Runs the batch select for all pending loads, once for every {@code nestedQueryBatchSize} distinct keys.
+   */
+  public synchronized void load() throws SQLException {
+    final List<Object> keys = new ArrayList<>(pendingLoads.keySet());
+    final int batchSize = getBatchSize();
+    for (int from = 0; from < keys.size(); from += batchSize) {
+      load(keys.subList(from, Math.min(from + batchSize, keys.size())));
+    }
+  }
+
+  /**
+   * Returns the rows of a triggered lazy load. If they were not loaded with a sibling, runs the batch select for its
+   * key, the keys of the pending lazy loads that follow it and then those before it, up to
+   * {@code nestedQueryBatchSize} keys.
+   *
+   * @return the rows of the triggered load, or null if it is not pending
+   */
+  public synchronized List<Object> loadLazily(ResultLoader resultLoader) throws SQLException {
+    final List<Object> rows = loadedRows.remove(resultLoader);
+    if (rows != null) {
+      return rows;
+    }
+    final Object triggerKey = createKey(resultLoader.parameterObject);
+    final List<ResultLoader> triggeredLoads = pendingLazyLoads.get(triggerKey);
+    if (triggeredLoads == null || !triggeredLoads.contains(resultLoader)) {
+      return null;
+    }
+    final List<Object> keys = new ArrayList<>();
+    keys.add(triggerKey);
+    final List<Object> precedingKeys = new ArrayList<>();
+    boolean following = false;
+    for (Object key : pendingLazyLoads.keySet()) {
+      if (key.equals(triggerKey)) {
+        following = true;
+      } else if (following) {
+        keys.add(key);
+      } else {
+        precedingKeys.add(key);
+      }
+    }
+    keys.addAll(precedingKeys);
+    final List<Object> batchKeys = keys.subList(0, Math.min(keys.size(), getBatchSize()));
+    final List<Object> parameters = new ArrayList<>(batchKeys.size());
+    for (Object key : batchKeys) {
+      parameters.add(parameterObjects.remove(key));
+    }
+    final Map<Object, List<Object>> rowsByKey = selectRowsByKey(parameters, true);
+    for (Object key : batchKeys) {
+      final List<Object> keyRows = rowsByKey.getOrDefault(key, Collections.emptyList());
+      for (ResultLoader loader : pendingLazyLoads.remove(key)) {
+        if (loader != resultLoader) {
+          // every parent gets its own collection
+          loadedRows.put(loader, new ArrayList<>(keyRows));
+        }
+      }
+    }
+    return rowsByKey.getOrDefault(triggerKey, new ArrayList<>());
+  }
+
+  private void load(List<Object> keys) throws SQLException {
+    final List<Object> parameters = new ArrayList<>(keys.size());
+    final List<List<PendingLoad>> loads = new ArrayList<>(keys.size());
+    for (Object key : keys) {
+      parameters.add(parameterObjects.remove(key));
+      loads.add(pendingLoads.remove(key));
+    }
+    final Map<Object, List<Object>> rowsByKey = selectRowsByKey(parameters, false);
+    for (int i = 0; i < keys.size(); i++) {
+      final List<Object> rows = rowsByKey.getOrDefault(keys.get(i), Collections.emptyList());
+      for (PendingLoad pendingLoad : loads.get(i)) {
+        // every parent gets its own collection
+        pendingLoad.load(resultExtractor.extractObjectFromList(new ArrayList<>(rows), resultMapping.getJavaType()));
+      }
+    }
+  }
+
+  private Map<Object, List<Object>> selectRowsByKey(List<Object> parameters, boolean lazy) throws SQLException {
+    final Map<Object, List<Object>> rowsByKey = new LinkedHashMap<>();
+    for (Object row : selectList(parameters, lazy)) {
+      final Object key = createKey(row, resultMapping.getBatchKeyProperties());
+      rowsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+    }
+    return rowsByKey;
+  }
+
+  private List<Object> selectList(List<Object> parameters, boolean lazy) throws SQLException {
+    final ParamMap<Object> parameterObject = new ParamMap<>();
+    parameterObject.put("collection", parameters);
+    parameterObject.put("list", parameters);
+    Executor localExecutor = executor;
+    if (lazy && (Thread.currentThread().getId() != creatorThreadId || localExecutor.isClosed())) {
+      localExecutor = ResultLoader.newExecutor(configuration);
+    }
+    try {
+      return localExecutor.query(mappedStatement, parameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+    } finally {
+      if (localExecutor != executor) {
+        localExecutor.close(false);
+      }
+    }
+  }
+
+  private int getBatchSize() {
+    return Math.max(1, configuration.getNestedQueryBatchSize());
+  }
+
+  private List<String> getCompositeProperties() {
+    final List<String> properties = new ArrayList<>();
+    for (ResultMapping composite : resultMapping.getComposites()) {
+      properties.add(composite.getProperty());
+    }
+    return properties;
+  }
+
+  private Object createKey(Object parameterObject) {
+    return createKey(parameterObject, resultMapping.isCompositeResult() ? getCompositeProperties() : null);
+  }
+
+  private Object createKey(Object object, List<String> properties) {
+    if (properties == null) {
+      return normalizeKeyValue(object);
+    }
+    final MetaObject metaObject = configuration.newMetaObject(object);
+    final Object[] values = new Object[properties.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = normalizeKeyValue(metaObject.getValue(properties.get(i)));
+    }
+    return values.length == 1 ? values[0] : Arrays.asList(values);
+  }
+
+  /**
+   * Returns a key value that equals the other values of the same integral number, whatever their types. The column read
+   * for the parent and the property of the row may use different integral types.
+   */
+  public static Object normalizeKeyValue(Object value) {
+    if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      return ((Number) value).longValue();
+    }
+    return value;
+  }
+
+  private class PendingLoad {
+
+    private final MetaObject metaResultObject;
+    private final String property;
+
+    PendingLoad(MetaObject metaResultObject, String property) {
+      this.metaResultObject = metaResultObject;
+      this.property = property;
+    }
+
+    void load(Object value) {
+      if (value != null || configuration.isCallSettersOnNulls() && !metaResultObject.getSetterType(property).isPrimitive()) {
+        metaResultObject.setValue(property, value);
+      }
+    }
+
+  }
+
+}
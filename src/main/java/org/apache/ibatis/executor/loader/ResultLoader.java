@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -49,11 +49,20 @@ public class ResultLoader {
   protected final BoundSql boundSql;
   protected final ResultExtractor resultExtractor;
   protected final long creatorThreadId;
+  protected final BatchResultLoader batchResultLoader;
 
   protected boolean loaded;
   protected Object resultObject;
 
   public ResultLoader(Configuration config, Executor executor, MappedStatement mappedStatement, Object parameterObject, Class<?> targetType, CacheKey cacheKey, BoundSql boundSql) {
+    this(config, executor, mappedStatement, parameterObject, targetType, cacheKey, boundSql, null);
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public ResultLoader(Configuration config, Executor executor, MappedStatement mappedStatement, Object parameterObject, Class<?> targetType, CacheKey cacheKey, BoundSql boundSql,
+      BatchResultLoader batchResultLoader) {
     this.configuration = config;
     this.executor = executor;
     this.mappedStatement = mappedStatement;
@@ -64,10 +73,20 @@ public class ResultLoader {
     this.boundSql = boundSql;
     this.resultExtractor = new ResultExtractor(configuration, objectFactory);
     this.creatorThreadId = Thread.currentThread().getId();
+    this.batchResultLoader = batchResultLoader;
+  }
+
+  void discard() {
+    if (batchResultLoader != null) {
+      batchResultLoader.removeLazyLoad(this);
+    }
   }
 
   public Object loadResult() throws SQLException {
-    List<Object> list = selectList();
+    List<Object> list = batchResultLoader == null ? null : batchResultLoader.loadLazily(this);
+    if (list == null) {
+      list = selectList();
+    }
     resultObject = resultExtractor.extractObjectFromList(list, targetType);
     return resultObject;
   }
@@ -75,7 +94,7 @@ public class ResultLoader {
   private <E> List<E> selectList() throws SQLException {
     Executor localExecutor = executor;
     if (Thread.currentThread().getId() != this.creatorThreadId || localExecutor.isClosed()) {
-      localExecutor = newExecutor();
+      localExecutor = newExecutor(configuration);
     }
     try {
       return localExecutor.query(mappedStatement, parameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER, cacheKey, boundSql);
@@ -86,7 +105,7 @@ public class ResultLoader {
     }
   }
 
-  private Executor newExecutor() {
+  static Executor newExecutor(Configuration configuration) {
     final Environment environment = configuration.getEnvironment();
     if (environment == null) {
       throw new ExecutorException("ResultLoader could not load lazily.  Environment was not configured.");
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -85,7 +85,11 @@ public class ResultLoaderMap {
   }
 
   public void remove(String property) {
-    loaderMap.remove(property.toUpperCase(Locale.ENGLISH));
+    LoadPair pair = loaderMap.remove(property.toUpperCase(Locale.ENGLISH));
+    if (pair != null && pair.resultLoader != null) {
+      // the property was set, so a batch must not load it any more
+      pair.resultLoader.discard();
+    }
   }
 
   public void loadAll() throws SQLException {
@@ -0,0 +1,193 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.ibatis.executor.ExecutorException;
+
+/**
+ * The rows of a query stored column by column. Columns read by an {@code int}, {@code long} or {@code double}
+ * {@link org.apache.ibatis.type.PrimitiveTypeHandler} are stored as primitive arrays, string columns are dictionary
+ * encoded unless most of their values are distinct and every other column is stored as an {@code Object[]}, so large
+ * results take a fraction of the heap needed by one object per row.
+ * <p>
+ * Returned by {@link org.apache.ibatis.session.SqlSession#selectColumnar(String, Object)} and by mapper methods
+ * declaring {@code ColumnarResult} as return type. The arrays returned by the getters are the storage of the result
+ * itself and hold exactly {@link #getRowCount()} values. Column names are matched ignoring case.
+ *
+ * @since 3.5.3
+ */
+public final class ColumnarResult {
+
+  private final int rowCount;
+  private final List<String> columnNames;
+  private final Map<String, Column> columns;
+
+  ColumnarResult(int rowCount, List<Column> columns) {
+    this.rowCount = rowCount;
+    final List<String> names = new ArrayList<>(columns.size());
+    this.columns = new HashMap<>();
+    for (Column column : columns) {
+      names.add(column.name);
+      this.columns.putIfAbsent(column.name.toUpperCase(Locale.ENGLISH), column);
+    }
+    this.columnNames = Collections.unmodifiableList(names);
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public List<String> getColumnNames() {
+    return columnNames;
+  }
+
+  public boolean hasColumn(String column) {
+    return columns.containsKey(column.toUpperCase(Locale.ENGLISH));
+  }
+
+  /**
+   * @return {@code int.class}, {@code long.class}, {@code double.class}, {@code String.class} or {@code Object.class}
+   */
+  public Class<?> getColumnType(String column) {
+    return getColumn(column).type;
+  }
+
+  public int[] getIntColumn(String column) {
+    return (int[]) getColumn(column, int.class).values;
+  }
+
+  public long[] getLongColumn(String column) {
+    return (long[]) getColumn(column, long.class).values;
+  }
+
+  public double[] getDoubleColumn(String column) {
+    return (double[]) getColumn(column, double.class).values;
+  }
+
+  /**
+   * Returns the dictionary codes of a string column. A code is the index of the value in
+   * {@link #getStringDictionary(String)}, or -1 for null values.
+   *
+   * @return the codes, or null if the column is not dictionary encoded because most of its values are distinct
+   */
+  public int[] getStringCodes(String column) {
+    final Column stringColumn = getColumn(column, String.class);
+    return stringColumn.dictionary == null ? null : (int[]) stringColumn.values;
+  }
+
+  /**
+   * @return the distinct values of a string column, or null if the column is not dictionary encoded
+   */
+  public List<String> getStringDictionary(String column) {
+    return getColumn(column, String.class).dictionary;
+  }
+
+  /**
+   * Returns the values of a string column. A dictionary encoded column is decoded into a new array.
+   */
+  public String[] getStringColumn(String column) {
+    final Column stringColumn = getColumn(column, String.class);
+    if (stringColumn.dictionary == null) {
+      return (String[]) stringColumn.values;
+    }
+    final int[] codes = (int[]) stringColumn.values;
+    final String[] values = new String[rowCount];
+    for (int i = 0; i < rowCount; i++) {
+      values[i] = codes[i] < 0 ? null : stringColumn.dictionary.get(codes[i]);
+    }
+    return values;
+  }
+
+  public Object[] getObjectColumn(String column) {
+    return (Object[]) getColumn(column, Object.class).values;
+  }
+
+  public boolean isNull(String column, int row) {
+    checkRow(row);
+    return getColumn(column).nulls.get(row);
+  }
+
+  /**
+   * Returns the value of a column in a row, boxed or decoded as needed.
+   */
+  public Object getValue(String column, int row) {
+    checkRow(row);
+    final Column valueColumn = getColumn(column);
+    if (valueColumn.nulls.get(row)) {
+      return null;
+    } else if (valueColumn.type == int.class) {
+      return ((int[]) valueColumn.values)[row];
+    } else if (valueColumn.type == long.class) {
+      return ((long[]) valueColumn.values)[row];
+    } else if (valueColumn.type == double.class) {
+      return ((double[]) valueColumn.values)[row];
+    } else if (valueColumn.type == String.class && valueColumn.dictionary == null) {
+      return ((String[]) valueColumn.values)[row];
+    } else if (valueColumn.type == String.class) {
+      return valueColumn.dictionary.get(((int[]) valueColumn.values)[row]);
+    } else {
+      return ((Object[]) valueColumn.values)[row];
+    }
+  }
+
+  private void checkRow(int row) {
+    if (row < 0 || row >= rowCount) {
+      throw new IndexOutOfBoundsException("Row: " + row + ", Row count: " + rowCount);
+    }
+  }
+
+  private Column getColumn(String name) {
+    final Column column = columns.get(name.toUpperCase(Locale.ENGLISH));
+    if (column == null) {
+      throw new ExecutorException("There is no column named '" + name + "' in the columnar result. Available columns are " + columnNames + ".");
+    }
+    return column;
+  }
+
+  private Column getColumn(String name, Class<?> type) {
+    final Column column = getColumn(name);
+    if (column.type != type) {
+      throw new ExecutorException("Column '" + name + "' of the columnar result holds " + column.type.getSimpleName()
+          + " values, not " + type.getSimpleName() + " values.");
+    }
+    return column;
+  }
+
+  static final class Column {
+    private final String name;
+    private final Class<?> type;
+    private final Object values;
+    private final BitSet nulls;
+    private final List<String> dictionary;
+
+    Column(String name, Class<?> type, Object values, BitSet nulls, List<String> dictionary) {
+      this.name = name;
+      this.type = type;
+      this.values = values;
+      this.nulls = nulls;
+      this.dictionary = dictionary == null ? null : Collections.unmodifiableList(dictionary);
+    }
+  }
+
+}
@@ -0,0 +1,312 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.type.PrimitiveTypeHandler;
+import org.apache.ibatis.type.TypeHandler;
+import org.apache.ibatis.type.TypeReference;
+
+/**
+ * Collects the rows of a query into a {@link ColumnarResult}. The result set handler does not map rows to objects
+ * for this handler: it hands over the type handler of every column and then calls {@link #handleRow(ResultSet)}
+ * for each row, which appends the column values to growable primitive vectors.
+ *
+ * @since 3.5.3
+ */
+public class ColumnarResultHandler implements ResultHandler<Object> {
+
+  private static final int INITIAL_CAPACITY = 16;
+  // a string column keeps its dictionary until it holds this many values and more than half of the rows are distinct
+  private static final int MIN_DICTIONARY_CUTOFF = 256;
+
+  private ColumnVector[] vectors;
+  private int rowCount;
+
+  @Override
+  public void handleResult(ResultContext<?> context) {
+    throw new ExecutorException("A ColumnarResultHandler reads the rows of the result set itself and cannot handle mapped result objects.");
+  }
+
+  /**
+   * Prepares the vectors of the columns of a result set.
+   *
+   * @param columnNames the column labels
+   * @param typeHandlers the type handler reading each column
+   */
+  public void startResultSet(List<String> columnNames, List<TypeHandler<?>> typeHandlers) {
+    if (vectors != null) {
+      throw new ExecutorException("Columnar results can only be read from a single result set.");
+    }
+    vectors = new ColumnVector[columnNames.size()];
+    for (int i = 0; i < vectors.length; i++) {
+      vectors[i] = newColumnVector(columnNames.get(i), typeHandlers.get(i));
+    }
+  }
+
+  /**
+   * Appends the values of the current row.
+   */
+  public void handleRow(ResultSet rs) throws SQLException {
+    for (int i = 0; i < vectors.length; i++) {
+      vectors[i].read(rs, i + 1, rowCount);
+    }
+    rowCount++;
+  }
+
+  public ColumnarResult getResult() {
+    if (vectors == null) {
+      return new ColumnarResult(0, Collections.emptyList());
+    }
+    final List<ColumnarResult.Column> columns = new ArrayList<>(vectors.length);
+    for (ColumnVector vector : vectors) {
+      columns.add(vector.toColumn(rowCount));
+    }
+    return new ColumnarResult(rowCount, columns);
+  }
+
+  private static ColumnVector newColumnVector(String name, TypeHandler<?> typeHandler) {
+    final Class<?> primitiveType = PrimitiveTypeHandler.resolvePrimitiveType(typeHandler);
+    if (primitiveType == int.class) {
+      return new IntVector(name, (PrimitiveTypeHandler) typeHandler);
+    } else if (primitiveType == long.class) {
+      return new LongVector(name, (PrimitiveTypeHandler) typeHandler);
+    } else if (primitiveType == double.class) {
+      return new DoubleVector(name, (PrimitiveTypeHandler) typeHandler);
+    } else if (typeHandler instanceof TypeReference && ((TypeReference<?>) typeHandler).getRawType() == String.class) {
+      return new StringVector(name, typeHandler);
+    } else {
+      return new ObjectVector(name, typeHandler);
+    }
+  }
+
+  private static int grow(int capacity) {
+    return Math.max(INITIAL_CAPACITY, capacity << 1);
+  }
+
+  private static int[] trim(int[] values, int rowCount) {
+    return values.length == rowCount ? values : Arrays.copyOf(values, rowCount);
+  }
+
+  private static long[] trim(long[] values, int rowCount) {
+    return values.length == rowCount ? values : Arrays.copyOf(values, rowCount);
+  }
+
+  private static double[] trim(double[] values, int rowCount) {
+    return values.length == rowCount ? values : Arrays.copyOf(values, rowCount);
+  }
+
+  private static <T> T[] trim(T[] values, int rowCount) {
+    return values.length == rowCount ? values : Arrays.copyOf(values, rowCount);
+  }
+
+  private abstract static class ColumnVector {
+    final String name;
+    final BitSet nulls = new BitSet();
+
+    ColumnVector(String name) {
+      this.name = name;
+    }
+
+    abstract void read(ResultSet rs, int columnIndex, int row) throws SQLException;
+
+    abstract ColumnarResult.Column toColumn(int rowCount);
+  }
+
+  private static final class IntVector extends ColumnVector {
+    private final PrimitiveTypeHandler typeHandler;
+    private int[] values = new int[INITIAL_CAPACITY];
+
+    IntVector(String name, PrimitiveTypeHandler typeHandler) {
+      super(name);
+      this.typeHandler = typeHandler;
+    }
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      if (row == values.length) {
+        values = Arrays.copyOf(values, grow(row));
+      }
+      values[row] = typeHandler.getIntResult(rs, columnIndex);
+      if (values[row] == 0 && rs.wasNull()) {
+        nulls.set(row);
+      }
+    }
+
+    @Override
+    ColumnarResult.Column toColumn(int rowCount) {
+      return new ColumnarResult.Column(name, int.class, trim(values, rowCount), nulls, null);
+    }
+  }
+
+  private static final class LongVector extends ColumnVector {
+    private final PrimitiveTypeHandler typeHandler;
+    private long[] values = new long[INITIAL_CAPACITY];
+
+    LongVector(String name, PrimitiveTypeHandler typeHandler) {
+      super(name);
+      this.typeHandler = typeHandler;
+    }
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      if (row == values.length) {
+        values = Arrays.copyOf(values, grow(row));
+      }
+      values[row] = typeHandler.getLongResult(rs, columnIndex);
+      if (values[row] == 0 && rs.wasNull()) {
+        nulls.set(row);
+      }
+    }
+
+    @Override
+    ColumnarResult.Column toColumn(int rowCount) {
+      return new ColumnarResult.Column(name, long.class, trim(values, rowCount), nulls, null);
+    }
+  }
+
+  private static final class DoubleVector extends ColumnVector {
+    private final PrimitiveTypeHandler typeHandler;
+    private double[] values = new double[INITIAL_CAPACITY];
+
+    DoubleVector(String name, PrimitiveTypeHandler typeHandler) {
+      super(name);
+      this.typeHandler = typeHandler;
+    }
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      if (row == values.length) {
+        values = Arrays.copyOf(values, grow(row));
+      }
+      values[row] = typeHandler.getDoubleResult(rs, columnIndex);
+      if (values[row] == 0 && rs.wasNull()) {
+        nulls.set(row);
+      }
+    }
+
+    @Override
+    ColumnarResult.Column toColumn(int rowCount) {
+      return new ColumnarResult.Column(name, double.class, trim(values, rowCount), nulls, null);
+    }
+  }
+
+  private static final class StringVector extends ColumnVector {
+    private final TypeHandler<?> typeHandler;
+    private Map<String, Integer> codes = new HashMap<>();
+    private List<String> dictionary = new ArrayList<>();
+    private int[] values = new int[INITIAL_CAPACITY];
+    // replaces the codes once most of the values turn out to be distinct
+    private String[] plainValues;
+
+    StringVector(String name, TypeHandler<?> typeHandler) {
+      super(name);
+      this.typeHandler = typeHandler;
+    }
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      final String value = (String) typeHandler.getResult(rs, columnIndex);
+      if (value == null) {
+        nulls.set(row);
+      }
+      if (plainValues == null) {
+        if (row == values.length) {
+          values = Arrays.copyOf(values, grow(row));
+        }
+        if (value == null) {
+          values[row] = -1;
+          return;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+          if (dictionary.size() < MIN_DICTIONARY_CUTOFF || dictionary.size() <= row / 2) {
+            code = dictionary.size();
+            codes.put(value, code);
+            dictionary.add(value);
+          } else {
+            decode(row);
+          }
+        }
+        if (code != null) {
+          values[row] = code;
+          return;
+        }
+      }
+      if (row == plainValues.length) {
+        plainValues = Arrays.copyOf(plainValues, grow(row));
+      }
+      plainValues[row] = value;
+    }
+
+    private void decode(int rowCount) {
+      plainValues = new String[values.length];
+      for (int i = 0; i < rowCount; i++) {
+        plainValues[i] = values[i] < 0 ? null : dictionary.get(values[i]);
+      }
+      values = null;
+      codes = null;
+      dictionary = null;
+    }
+
+    @Override
+    ColumnarResult.Column toColumn(int rowCount) {
+      if (plainValues != null) {
+        return new ColumnarResult.Column(name, String.class, trim(plainValues, rowCount), nulls, null);
+      }
+      return new ColumnarResult.Column(name, String.class, trim(values, rowCount), nulls, dictionary);
+    }
+  }
+
+  private static final class ObjectVector extends ColumnVector {
+    private final TypeHandler<?> typeHandler;
+    private Object[] values = new Object[INITIAL_CAPACITY];
+
+    ObjectVector(String name, TypeHandler<?> typeHandler) {
+      super(name);
+      this.typeHandler = typeHandler;
+    }
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      if (row == values.length) {
+        values = Arrays.copyOf(values, grow(row));
+      }
+      values[row] = typeHandler.getResult(rs, columnIndex);
+      if (values[row] == null) {
+        nulls.set(row);
+      }
+    }
+
+    @Override
+    ColumnarResult.Column toColumn(int rowCount) {
+      return new ColumnarResult.Column(name, Object.class, trim(values, rowCount), nulls, null);
+    }
+  }
+
+}
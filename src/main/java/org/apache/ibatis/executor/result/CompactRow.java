@@ -0,0 +1,173 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable map holding the values of one row. The keys are kept in a {@link Schema} shared by all the rows
+ * read with the same column layout, so a row only stores its values.
+ * <p>
+ * Rows of result maps of type {@code map} are returned as compact rows when the {@code compactMapRowsEnabled}
+ * setting is on. A key is absent from a row when its value is null, unless the schema was created to keep null values,
+ * just like a {@code HashMap} populated with the {@code callSettersOnNulls} setting.
+ *
+ * @since 3.5.3
+ */
+public final class CompactRow extends AbstractMap<String, Object> implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final Schema schema;
+  private final Object[] values;
+  private final int size;
+
+  /**
+   * @param schema the keys of the row
+   * @param values the values of the row, in the order of the schema keys
+   */
+  public CompactRow(Schema schema, Object[] values) {
+    if (values.length != schema.keys.length) {
+      throw new IllegalArgumentException("Expected " + schema.keys.length + " values but got " + values.length + ".");
+    }
+    this.schema = schema;
+    this.values = values;
+    int count = 0;
+    for (int i = 0; i < values.length; i++) {
+      if (isPresent(i)) {
+        count++;
+      }
+    }
+    this.size = count;
+  }
+
+  public Schema getSchema() {
+    return schema;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    final int index = schema.indexOf(key);
+    return index >= 0 && isPresent(index);
+  }
+
+  @Override
+  public Object get(Object key) {
+    final int index = schema.indexOf(key);
+    return index >= 0 ? values[index] : null;
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    return new AbstractSet<Entry<String, Object>>() {
+      @Override
+      public Iterator<Entry<String, Object>> iterator() {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  private boolean isPresent(int index) {
+    return values[index] != null || schema.nullValuesPresent;
+  }
+
+  private final class EntryIterator implements Iterator<Entry<String, Object>> {
+    private int next = nextPresent(0);
+
+    private int nextPresent(int from) {
+      int index = from;
+      while (index < values.length && !isPresent(index)) {
+        index++;
+      }
+      return index;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < values.length;
+    }
+
+    @Override
+    public Entry<String, Object> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final Entry<String, Object> entry = new SimpleImmutableEntry<>(schema.keys[next], values[next]);
+      next = nextPresent(next + 1);
+      return entry;
+    }
+  }
+
+  /**
+   * The keys of compact rows and the position of their values.
+   */
+  public static final class Schema implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String[] keys;
+    private final Map<String, Integer> indexes;
+    private final boolean nullValuesPresent;
+
+    /**
+     * @param keys the distinct keys of the rows
+     * @param nullValuesPresent whether keys with a null value are present in the rows
+     */
+    public Schema(List<String> keys, boolean nullValuesPresent) {
+      this.keys = keys.toArray(new String[0]);
+      this.indexes = new HashMap<>();
+      for (int i = 0; i < this.keys.length; i++) {
+        if (indexes.put(this.keys[i], i) != null) {
+          throw new IllegalArgumentException("Duplicate key '" + this.keys[i] + "' in compact row schema.");
+        }
+      }
+      this.nullValuesPresent = nullValuesPresent;
+    }
+
+    public int size() {
+      return keys.length;
+    }
+
+    public boolean isNullValuesPresent() {
+      return nullValuesPresent;
+    }
+
+    public int indexOf(Object key) {
+      final Integer index = indexes.get(key);
+      return index == null ? -1 : index;
+    }
+
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2015 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -31,6 +31,7 @@ public class DefaultMapResultHandler<K, V> implements ResultHandler<V> {
 
   private final Map<K, V> mappedResults;
   private final String mapKey;
+  private final boolean simpleMapKey;
   private final ObjectFactory objectFactory;
   private final ObjectWrapperFactory objectWrapperFactory;
   private final ReflectorFactory reflectorFactory;
@@ -42,14 +43,22 @@ public class DefaultMapResultHandler<K, V> implements ResultHandler<V> {
     this.reflectorFactory = reflectorFactory;
     this.mappedResults = objectFactory.create(Map.class);
     this.mapKey = mapKey;
+    this.simpleMapKey = mapKey != null && mapKey.indexOf('.') == -1 && mapKey.indexOf('[') == -1;
   }
 
   @Override
   public void handleResult(ResultContext<? extends V> context) {
     final V value = context.getResultObject();
-    final MetaObject mo = MetaObject.forObject(value, objectFactory, objectWrapperFactory, reflectorFactory);
+    final Object keyValue;
+    if (value instanceof CompactRow && simpleMapKey) {
+      keyValue = ((CompactRow) value).get(mapKey);
+    } else {
+      final MetaObject mo = MetaObject.forObject(value, objectFactory, objectWrapperFactory, reflectorFactory);
+      keyValue = mo.getValue(mapKey);
+    }
     // TODO is that assignment always true?
-    final K key = (K) mo.getValue(mapKey);
+    @SuppressWarnings("unchecked")
+    final K key = (K) keyValue;
     mappedResults.put(key, value);
   }
 
@@ -0,0 +1,217 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.lang.invoke.MethodHandle;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.ibatis.executor.result.CompactRow;
+import org.apache.ibatis.executor.result.ResultMapException;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.MethodHandleInvoker;
+import org.apache.ibatis.type.PrimitiveTypeHandler;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Maps the rows of a simple result map for one column layout. The columns, type handlers and setter invokers
+ * are resolved once when the mapper is compiled, so mapping a row only reads the columns by index and calls
+ * the setters, without creating a {@link org.apache.ibatis.reflection.MetaObject}. Primitive {@code int},
+ * {@code long} and {@code double} properties read by a {@link PrimitiveTypeHandler} are read and set without boxing.
+ * <p>
+ * A mapper for a result map of type {@code map} creates {@link CompactRow}s sharing the schema of the mapper instead.
+ * <p>
+ * Mappers are compiled by {@link DefaultResultSetHandler} for result maps without nested result maps,
+ * nested selects or constructor mappings. Every other result map is mapped by the handler itself.
+ */
+final class CompiledRowMapper {
+
+  /**
+   * Marks a result map and column layout that cannot be mapped by a compiled mapper.
+   */
+  static final CompiledRowMapper UNSUPPORTED = new CompiledRowMapper((Class<?>) null, new ColumnMapping[0]);
+
+  private final Class<?> type;
+  private final CompactRow.Schema schema;
+  private final ColumnMapping[] columnMappings;
+
+  CompiledRowMapper(Class<?> type, ColumnMapping[] columnMappings) {
+    this.type = type;
+    this.schema = null;
+    this.columnMappings = columnMappings;
+  }
+
+  CompiledRowMapper(CompactRow.Schema schema, ColumnMapping[] columnMappings) {
+    this.type = null;
+    this.schema = schema;
+    this.columnMappings = columnMappings;
+  }
+
+  /**
+   * Maps the current row.
+   *
+   * @return the result object, or null if no column had a value and empty rows must not be returned as instances
+   */
+  Object map(ResultSet rs, ObjectFactory objectFactory, boolean returnInstanceForEmptyRow) throws SQLException {
+    if (schema != null) {
+      return mapCompactRow(rs, returnInstanceForEmptyRow);
+    }
+    final Object rowValue = objectFactory.create(type);
+    boolean foundValues = false;
+    for (ColumnMapping columnMapping : columnMappings) {
+      if (columnMapping.unboxedSetter != null) {
+        foundValues = columnMapping.setPrimitiveValue(rs, rowValue) || foundValues;
+        continue;
+      }
+      final Object value = columnMapping.typeHandler.getResult(rs, columnMapping.columnIndex);
+      if (value != null) {
+        foundValues = true;
+      }
+      if (value != null || columnMapping.callSetterOnNull) {
+        // gcode issue #377, call setter on nulls (value is not 'found')
+        columnMapping.setValue(rowValue, value);
+      }
+    }
+    return foundValues || returnInstanceForEmptyRow ? rowValue : null;
+  }
+
+  private Object mapCompactRow(ResultSet rs, boolean returnInstanceForEmptyRow) throws SQLException {
+    final Object[] values = new Object[schema.size()];
+    final boolean putNulls = schema.isNullValuesPresent();
+    boolean foundValues = false;
+    for (ColumnMapping columnMapping : columnMappings) {
+      final Object value = columnMapping.typeHandler.getResult(rs, columnMapping.columnIndex);
+      if (value != null) {
+        foundValues = true;
+      }
+      if (value != null || putNulls) {
+        values[columnMapping.valueIndex] = value;
+      }
+    }
+    return foundValues || returnInstanceForEmptyRow ? new CompactRow(schema, values) : null;
+  }
+
+  static final class ColumnMapping {
+    private final int columnIndex;
+    private final TypeHandler<?> typeHandler;
+    private final String property;
+    private final Invoker setter;
+    private final boolean callSetterOnNull;
+    private final Class<?> propertyType;
+    private final MethodHandle unboxedSetter;
+    private final int valueIndex;
+
+    ColumnMapping(int columnIndex, TypeHandler<?> typeHandler, String property, Invoker setter, Class<?> propertyType, boolean callSetterOnNull) {
+      this.columnIndex = columnIndex;
+      this.typeHandler = typeHandler;
+      this.property = property;
+      this.setter = setter;
+      this.callSetterOnNull = callSetterOnNull;
+      this.propertyType = propertyType;
+      final boolean readsPrimitive = propertyType.isPrimitive() && PrimitiveTypeHandler.resolvePrimitiveType(typeHandler) == propertyType;
+      this.unboxedSetter = readsPrimitive ? MethodHandleInvoker.unboxedSetter(setter) : null;
+      this.valueIndex = -1;
+    }
+
+    /**
+     * Creates the mapping of a column to the value of a compact row.
+     */
+    ColumnMapping(int columnIndex, TypeHandler<?> typeHandler, String property, int valueIndex) {
+      this.columnIndex = columnIndex;
+      this.typeHandler = typeHandler;
+      this.property = property;
+      this.setter = null;
+      this.callSetterOnNull = false;
+      this.propertyType = Object.class;
+      this.unboxedSetter = null;
+      this.valueIndex = valueIndex;
+    }
+
+    private boolean setPrimitiveValue(ResultSet rs, Object object) throws SQLException {
+      final PrimitiveTypeHandler primitiveTypeHandler = (PrimitiveTypeHandler) typeHandler;
+      try {
+        if (propertyType == int.class) {
+          final int value = primitiveTypeHandler.getIntResult(rs, columnIndex);
+          if (value == 0 && rs.wasNull()) {
+            return false;
+          }
+          invokeUnboxedSetter(object, value);
+        } else if (propertyType == long.class) {
+          final long value = primitiveTypeHandler.getLongResult(rs, columnIndex);
+          if (value == 0 && rs.wasNull()) {
+            return false;
+          }
+          invokeUnboxedSetter(object, value);
+        } else {
+          final double value = primitiveTypeHandler.getDoubleResult(rs, columnIndex);
+          if (value == 0 && rs.wasNull()) {
+            return false;
+          }
+          invokeUnboxedSetter(object, value);
+        }
+        return true;
+      } catch (ReflectionException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new ResultMapException("Error attempting to get column #" + columnIndex + " from result set.  Cause: " + e, e);
+      }
+    }
+
+    private void invokeUnboxedSetter(Object object, int value) {
+      try {
+        unboxedSetter.invokeExact(object, value);
+      } catch (Throwable t) {
+        throw setterException(object, value, t);
+      }
+    }
+
+    private void invokeUnboxedSetter(Object object, long value) {
+      try {
+        unboxedSetter.invokeExact(object, value);
+      } catch (Throwable t) {
+        throw setterException(object, value, t);
+      }
+    }
+
+    private void invokeUnboxedSetter(Object object, double value) {
+      try {
+        unboxedSetter.invokeExact(object, value);
+      } catch (Throwable t) {
+        throw setterException(object, value, t);
+      }
+    }
+
+    private ReflectionException setterException(Object object, Object value, Throwable t) {
+      return new ReflectionException("Could not set property '" + property + "' of '" + object.getClass() + "' with value '" + value + "' Cause: " + t.toString(), t);
+    }
+
+    private void setValue(Object object, Object value) {
+      try {
+        try {
+          setter.invoke(object, new Object[] {value});
+        } catch (Throwable t) {
+          throw ExceptionUtil.unwrapThrowable(t);
+        }
+      } catch (Throwable t) {
+        throw setterException(object, value, t);
+      }
+    }
+  }
+
+}
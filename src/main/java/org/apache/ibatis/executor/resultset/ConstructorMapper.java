@@ -0,0 +1,126 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.result.ResultMapException;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Creates result objects through a constructor resolved once for a result map and column layout. The arguments
+ * are read by index into an array that is spread on a cached {@link MethodHandle} of the constructor, so creating an
+ * object neither builds argument lists nor looks the constructor up again.
+ * <p>
+ * Mappers are built by {@link DefaultResultSetHandler} for {@code <constructor>} mappings made of plain columns and
+ * for constructors selected by auto-mapping, when objects are created by the default object factory.
+ */
+final class ConstructorMapper {
+
+  /**
+   * Marks a result map and column layout whose objects are not created by a constructor mapper.
+   */
+  static final ConstructorMapper UNSUPPORTED = new ConstructorMapper(null, null, new int[0], new TypeHandler<?>[0], null);
+
+  private final Constructor<?> constructor;
+  private final MethodHandle factory;
+  private final int[] columnIndexes;
+  private final TypeHandler<?>[] typeHandlers;
+  private final ResultMapping[] resultMappings;
+
+  private ConstructorMapper(Constructor<?> constructor, MethodHandle factory, int[] columnIndexes, TypeHandler<?>[] typeHandlers,
+      ResultMapping[] resultMappings) {
+    this.constructor = constructor;
+    this.factory = factory;
+    this.columnIndexes = columnIndexes;
+    this.typeHandlers = typeHandlers;
+    this.resultMappings = resultMappings;
+  }
+
+  /**
+   * Creates a mapper passing the columns read by the type handlers as constructor arguments.
+   *
+   * @param resultMappings the {@code <constructor>} mappings of the arguments, or null for auto-mapped constructors
+   * @return the mapper, or {@link #UNSUPPORTED} if the constructor cannot be accessed through a method handle
+   */
+  static ConstructorMapper forConstructor(Constructor<?> constructor, int[] columnIndexes, TypeHandler<?>[] typeHandlers, ResultMapping[] resultMappings) {
+    MethodHandle handle;
+    try {
+      try {
+        handle = MethodHandles.lookup().unreflectConstructor(constructor);
+      } catch (IllegalAccessException e) {
+        if (!Reflector.canControlMemberAccessible()) {
+          return UNSUPPORTED;
+        }
+        constructor.setAccessible(true);
+        handle = MethodHandles.lookup().unreflectConstructor(constructor);
+      }
+    } catch (IllegalAccessException | SecurityException e) {
+      return UNSUPPORTED;
+    }
+    final MethodHandle factory = handle.asSpreader(Object[].class, columnIndexes.length)
+        .asType(MethodType.methodType(Object.class, Object[].class));
+    return new ConstructorMapper(constructor, factory, columnIndexes, typeHandlers, resultMappings);
+  }
+
+  /**
+   * Creates the result object of the current row.
+   *
+   * @return the object, or null if all the arguments are null
+   */
+  Object create(ResultSet rs) throws SQLException {
+    final Object[] args = new Object[columnIndexes.length];
+    boolean foundValues = false;
+    for (int i = 0; i < args.length; i++) {
+      final Object value;
+      if (resultMappings == null) {
+        value = typeHandlers[i].getResult(rs, columnIndexes[i]);
+      } else {
+        try {
+          value = typeHandlers[i].getResult(rs, columnIndexes[i]);
+        } catch (ResultMapException | SQLException e) {
+          throw new ExecutorException("Could not process result for mapping: " + resultMappings[i], e);
+        }
+      }
+      args[i] = value;
+      foundValues = value != null || foundValues;
+    }
+    return foundValues ? newInstance(args) : null;
+  }
+
+  private Object newInstance(Object[] args) {
+    try {
+      return (Object) factory.invokeExact(args);
+    } catch (Throwable t) {
+      final String argTypes = Arrays.stream(constructor.getParameterTypes()).map(Class::getSimpleName).collect(Collectors.joining(","));
+      final String argValues = Arrays.stream(args).map(String::valueOf).collect(Collectors.joining(","));
+      throw new ReflectionException("Error instantiating " + constructor.getDeclaringClass() + " with invalid types (" + argTypes
+          + ") or values (" + argValues + "). Cause: " + t, t);
+    }
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -16,13 +16,16 @@
 package org.apache.ibatis.executor.resultset;
 
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
 import java.sql.CallableStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -33,13 +36,18 @@ import org.apache.ibatis.binding.MapperMethod.ParamMap;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.cursor.defaults.DefaultCursor;
+import org.apache.ibatis.cursor.defaults.PrefetchingCursor;
+import org.apache.ibatis.executor.AsyncExecutors;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.loader.BatchResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.executor.result.ColumnarResultHandler;
+import org.apache.ibatis.executor.result.CompactRow;
 import org.apache.ibatis.executor.result.DefaultResultHandler;
 import org.apache.ibatis.executor.result.ResultMapException;
 import org.apache.ibatis.mapping.BoundSql;
@@ -51,8 +59,12 @@ import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.Reflector;
 import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultContext;
@@ -71,6 +83,7 @@ import org.apache.ibatis.type.TypeHandlerRegistry;
 public class DefaultResultSetHandler implements ResultSetHandler {
 
   private static final Object DEFERRED = new Object();
+  private static final int NESTED_RESULT_OBJECTS_RETAINED_SIZE = 64;
 
   private final Executor executor;
   private final Configuration configuration;
@@ -84,7 +97,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final ReflectorFactory reflectorFactory;
 
   // nested resultmaps
-  private final Map<CacheKey, Object> nestedResultObjects = new HashMap<>();
+  private Map<RowKey, Object> nestedResultObjects = new HashMap<>();
   private final Map<String, Object> ancestorObjects = new HashMap<>();
   private Object previousRowValue;
 
@@ -92,8 +105,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final Map<String, ResultMapping> nextResultMaps = new HashMap<>();
   private final Map<CacheKey, List<PendingRelation>> pendingRelations = new HashMap<>();
 
-  // Cached Automappings
-  private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<>();
+  // batched nested queries
+  private Map<ResultMapping, BatchResultLoader> batchResultLoaders;
+  private final Map<ResultMapping, BatchResultLoader> lazyBatchResultLoaders = new IdentityHashMap<>();
 
   // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
   private boolean useConstructorMappings;
@@ -103,7 +117,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     public ResultMapping propertyMapping;
   }
 
-  private static class UnMappedColumnAutoMapping {
+  static class UnMappedColumnAutoMapping {
     private final String column;
     private final String property;
     private final TypeHandler<?> typeHandler;
@@ -160,7 +174,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     try {
       final String resultMapId = parameterMapping.getResultMapId();
       final ResultMap resultMap = configuration.getResultMap(resultMapId);
-      final ResultSetWrapper rsw = new ResultSetWrapper(rs, configuration);
+      final ResultSetWrapper rsw = newResultSetWrapper(rs);
       if (this.resultHandler == null) {
         final DefaultResultHandler resultHandler = new DefaultResultHandler(objectFactory);
         handleRowValues(rsw, resultMap, resultHandler, new RowBounds(), null);
@@ -182,6 +196,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     ErrorContext.instance().activity("handling results").object(mappedStatement.getId());
 
     final List<Object> multipleResults = new ArrayList<>();
+    // rows passed to a result handler must be complete, so only collected results are batched
+    batchResultLoaders = resultHandler == null ? new IdentityHashMap<>() : null;
 
     int resultSetCount = 0;
     ResultSetWrapper rsw = getFirstResultSet(stmt);
@@ -212,6 +228,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       }
     }
 
+    loadBatchedNestedQueries();
     return collapseSingleResultList(multipleResults);
   }
 
@@ -230,7 +247,39 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
 
     ResultMap resultMap = resultMaps.get(0);
-    return new DefaultCursor<>(this, resultMap, rsw, rowBounds);
+    Cursor<E> cursor = new DefaultCursor<>(this, resultMap, rsw, rowBounds);
+    int prefetchSize = configuration.getCursorPrefetchSize();
+    // nested selects and lazy loaders use the executor of the session, which must not be used by another thread
+    if (prefetchSize > 0 && !hasNestedQueries(resultMap, new HashSet<>())) {
+      cursor = new PrefetchingCursor<>(cursor, prefetchSize, AsyncExecutors.getExecutor(configuration));
+    }
+    return cursor;
+  }
+
+  private boolean hasNestedQueries(ResultMap resultMap, Set<String> visitedResultMapIds) {
+    if (!visitedResultMapIds.add(resultMap.getId())) {
+      return false;
+    }
+    if (resultMap.hasNestedQueries()) {
+      return true;
+    }
+    for (ResultMapping resultMapping : resultMap.getResultMappings()) {
+      final String nestedResultMapId = resultMapping.getNestedResultMapId();
+      if (nestedResultMapId != null && configuration.hasResultMap(nestedResultMapId)
+          && hasNestedQueries(configuration.getResultMap(nestedResultMapId), visitedResultMapIds)) {
+        return true;
+      }
+    }
+    final Discriminator discriminator = resultMap.getDiscriminator();
+    if (discriminator != null) {
+      for (String discriminatedMapId : discriminator.getDiscriminatorMap().values()) {
+        if (configuration.hasResultMap(discriminatedMapId)
+            && hasNestedQueries(configuration.getResultMap(discriminatedMapId), visitedResultMapIds)) {
+          return true;
+        }
+      }
+    }
+    return false;
   }
 
   private ResultSetWrapper getFirstResultSet(Statement stmt) throws SQLException {
@@ -247,7 +296,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
     }
-    return rs != null ? new ResultSetWrapper(rs, configuration) : null;
+    return rs != null ? newResultSetWrapper(rs) : null;
   }
 
   private ResultSetWrapper getNextResultSet(Statement stmt) {
@@ -260,7 +309,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           if (rs == null) {
             return getNextResultSet(stmt);
           } else {
-            return new ResultSetWrapper(rs, configuration);
+            return newResultSetWrapper(rs);
           }
         }
       }
@@ -270,6 +319,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return null;
   }
 
+  private ResultSetWrapper newResultSetWrapper(ResultSet rs) throws SQLException {
+    return new ResultSetWrapper(rs, configuration, configuration.isResultSetLayoutCacheEnabled() ? mappedStatement : null);
+  }
+
   private void closeResultSet(ResultSet rs) {
     try {
       if (rs != null) {
@@ -281,7 +334,16 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   }
 
   private void cleanUpAfterHandlingResultSet() {
-    nestedResultObjects.clear();
+    clearNestedResultObjects();
+  }
+
+  private void clearNestedResultObjects() {
+    // clearing a map costs as much as the capacity it once grew to, so a large map is dropped instead
+    if (nestedResultObjects.size() > NESTED_RESULT_OBJECTS_RETAINED_SIZE) {
+      nestedResultObjects = new HashMap<>();
+    } else {
+      nestedResultObjects.clear();
+    }
   }
 
   private void validateResultMapsCount(ResultSetWrapper rsw, int resultMapCount) {
@@ -300,6 +362,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           DefaultResultHandler defaultResultHandler = new DefaultResultHandler(objectFactory);
           handleRowValues(rsw, resultMap, defaultResultHandler, rowBounds, null);
           multipleResults.add(defaultResultHandler.getResultList());
+        } else if (resultHandler instanceof ColumnarResultHandler) {
+          handleRowValuesForColumnarResult(rsw, resultMap, (ColumnarResultHandler) resultHandler, rowBounds);
         } else {
           handleRowValues(rsw, resultMap, resultHandler, rowBounds, null);
         }
@@ -350,15 +414,15 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     ResultSet resultSet = rsw.getResultSet();
     skipRows(resultSet, rowBounds);
     while (shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed() && resultSet.next()) {
-      ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
+      ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw, resultMap, null);
       Object rowValue = getRowValue(rsw, discriminatedResultMap, null);
-      storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
+      storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw);
     }
   }
 
-  private void storeObject(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object rowValue, ResultMapping parentMapping, ResultSet rs) throws SQLException {
+  private void storeObject(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object rowValue, ResultMapping parentMapping, ResultSetWrapper rsw) throws SQLException {
     if (parentMapping != null) {
-      linkToParents(rs, parentMapping, rowValue);
+      linkToParents(rsw, parentMapping, rowValue);
     } else {
       callResultHandler(resultHandler, resultContext, rowValue);
     }
@@ -388,11 +452,47 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  //
+  // HANDLE ROWS FOR COLUMNAR RESULT
+  //
+
+  private void handleRowValuesForColumnarResult(ResultSetWrapper rsw, ResultMap resultMap, ColumnarResultHandler resultHandler, RowBounds rowBounds)
+      throws SQLException {
+    // columns mapped by the result map are read with their mapping's type handler, the others with the registered one
+    final Map<String, TypeHandler<?>> mappedTypeHandlers = new HashMap<>();
+    for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
+      if (resultMapping.getColumn() != null && resultMapping.getNestedQueryId() == null && resultMapping.getNestedResultMapId() == null) {
+        mappedTypeHandlers.putIfAbsent(resultMapping.getColumn().toUpperCase(Locale.ENGLISH), resultMapping.getTypeHandler());
+      }
+    }
+    final List<String> columnNames = rsw.getColumnNames();
+    final List<TypeHandler<?>> typeHandlers = new ArrayList<>(columnNames.size());
+    for (String columnName : columnNames) {
+      final TypeHandler<?> typeHandler = mappedTypeHandlers.get(columnName.toUpperCase(Locale.ENGLISH));
+      typeHandlers.add(typeHandler != null ? typeHandler : rsw.getTypeHandler(Object.class, columnName));
+    }
+    resultHandler.startResultSet(columnNames, typeHandlers);
+    final ResultSet resultSet = rsw.getResultSet();
+    skipRows(resultSet, rowBounds);
+    int rowCount = 0;
+    while (rowCount < rowBounds.getLimit() && !resultSet.isClosed() && resultSet.next()) {
+      resultHandler.handleRow(resultSet);
+      rowCount++;
+    }
+  }
+
   //
   // GET VALUE FROM ROW FOR SIMPLE RESULT MAP
   //
 
   private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+    if (configuration.isCompiledRowMappersEnabled() || configuration.isCompactMapRowsEnabled() && resultMap.getType() == Map.class) {
+      final CompiledRowMapper rowMapper = getCompiledRowMapper(rsw, resultMap, columnPrefix);
+      if (rowMapper != CompiledRowMapper.UNSUPPORTED) {
+        this.useConstructorMappings = false;
+        return rowMapper.map(rsw.getResultSet(), objectFactory, configuration.isReturnInstanceForEmptyRow());
+      }
+    }
     final ResultLoaderMap lazyLoader = new ResultLoaderMap();
     Object rowValue = createResultObject(rsw, resultMap, lazyLoader, columnPrefix);
     if (rowValue != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
@@ -420,6 +520,125 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  //
+  // COMPILED ROW MAPPERS
+  //
+
+  private CompiledRowMapper getCompiledRowMapper(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+    CompiledRowMapper rowMapper = rsw.getCompiledRowMapper(resultMap, columnPrefix);
+    if (rowMapper == null) {
+      rowMapper = compileRowMapper(rsw, resultMap, columnPrefix);
+      rsw.putCompiledRowMapper(resultMap, columnPrefix, rowMapper);
+    }
+    return rowMapper;
+  }
+
+  private CompiledRowMapper compileRowMapper(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+    final Class<?> resultType = resultMap.getType();
+    if (resultType == Map.class && configuration.isCompactMapRowsEnabled()) {
+      return compileCompactRowMapper(rsw, resultMap, columnPrefix);
+    }
+    if (!configuration.isCompiledRowMappersEnabled() || !canCompileRowMapper(rsw, resultMap)) {
+      return CompiledRowMapper.UNSUPPORTED;
+    }
+    final Reflector reflector = reflectorFactory.findForClass(resultType);
+    final List<CompiledRowMapper.ColumnMapping> columnMappings = new ArrayList<>();
+    if (shouldApplyAutomaticMappings(resultMap, false)) {
+      final MetaObject metaObject = configuration.newMetaObject(objectFactory.create(resultType));
+      for (UnMappedColumnAutoMapping mapping : createAutomaticMappings(rsw, resultMap, metaObject, columnPrefix)) {
+        if (!isSimpleProperty(mapping.property)) {
+          return CompiledRowMapper.UNSUPPORTED;
+        }
+        columnMappings.add(new CompiledRowMapper.ColumnMapping(rsw.getColumnIndex(mapping.column), mapping.typeHandler, mapping.property,
+            reflector.getSetInvoker(mapping.property), reflector.getSetterType(mapping.property), configuration.isCallSettersOnNulls() && !mapping.primitive));
+      }
+    }
+    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
+      final String property = propertyMapping.getProperty();
+      if (column == null || property == null || !mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+        continue;
+      }
+      if (!isSimpleProperty(property) || !reflector.hasSetter(property)) {
+        return CompiledRowMapper.UNSUPPORTED;
+      }
+      final Class<?> propertyType = reflector.getSetterType(property);
+      columnMappings.add(new CompiledRowMapper.ColumnMapping(rsw.getColumnIndex(column), propertyMapping.getTypeHandler(), property,
+          reflector.getSetInvoker(property), propertyType, configuration.isCallSettersOnNulls() && !propertyType.isPrimitive()));
+    }
+    return new CompiledRowMapper(resultType, columnMappings.toArray(new CompiledRowMapper.ColumnMapping[0]));
+  }
+
+  private CompiledRowMapper compileCompactRowMapper(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+    if (!canCompileMappings(rsw, resultMap)) {
+      return CompiledRowMapper.UNSUPPORTED;
+    }
+    final List<String> keys = new ArrayList<>();
+    final List<CompiledRowMapper.ColumnMapping> columnMappings = new ArrayList<>();
+    if (shouldApplyAutomaticMappings(resultMap, false)) {
+      final MetaObject metaObject = configuration.newMetaObject(objectFactory.create(Map.class));
+      for (UnMappedColumnAutoMapping mapping : createAutomaticMappings(rsw, resultMap, metaObject, columnPrefix)) {
+        if (!isSimpleProperty(mapping.property)) {
+          return CompiledRowMapper.UNSUPPORTED;
+        }
+        columnMappings.add(new CompiledRowMapper.ColumnMapping(rsw.getColumnIndex(mapping.column), mapping.typeHandler, mapping.property,
+            getKeyIndex(keys, mapping.property)));
+      }
+    }
+    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
+      final String property = propertyMapping.getProperty();
+      if (column == null || property == null || !mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+        continue;
+      }
+      if (!isSimpleProperty(property)) {
+        return CompiledRowMapper.UNSUPPORTED;
+      }
+      columnMappings.add(new CompiledRowMapper.ColumnMapping(rsw.getColumnIndex(column), propertyMapping.getTypeHandler(), property,
+          getKeyIndex(keys, property)));
+    }
+    final CompactRow.Schema schema = new CompactRow.Schema(keys, configuration.isCallSettersOnNulls());
+    return new CompiledRowMapper(schema, columnMappings.toArray(new CompiledRowMapper.ColumnMapping[0]));
+  }
+
+  private int getKeyIndex(List<String> keys, String key) {
+    final int index = keys.indexOf(key);
+    if (index >= 0) {
+      return index;
+    }
+    keys.add(key);
+    return keys.size() - 1;
+  }
+
+  private boolean canCompileRowMapper(ResultSetWrapper rsw, ResultMap resultMap) {
+    final Class<?> resultType = resultMap.getType();
+    if (resultType.isInterface() || Map.class.isAssignableFrom(resultType) || Collection.class.isAssignableFrom(resultType)
+        || ObjectWrapper.class.isAssignableFrom(resultType) || !reflectorFactory.findForClass(resultType).hasDefaultConstructor()) {
+      return false;
+    }
+    return canCompileMappings(rsw, resultMap);
+  }
+
+  private boolean canCompileMappings(ResultSetWrapper rsw, ResultMap resultMap) {
+    if (!resultMap.getConstructorResultMappings().isEmpty() || resultMap.hasNestedResultMaps() || resultMap.hasNestedQueries()
+        || hasTypeHandlerForResultObject(rsw, resultMap.getType())
+        || configuration.getObjectWrapperFactory().getClass() != DefaultObjectWrapperFactory.class) {
+      return false;
+    }
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      if (propertyMapping.getResultSet() != null || propertyMapping.isCompositeResult()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isSimpleProperty(String property) {
+    return property.indexOf('.') == -1 && property.indexOf('[') == -1;
+  }
+
   //
   // PROPERTY MAPPINGS
   //
@@ -438,7 +657,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       if (propertyMapping.isCompositeResult()
           || (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH)))
           || propertyMapping.getResultSet() != null) {
-        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader, columnPrefix);
+        Object value = getPropertyMappingValue(rsw, metaObject, propertyMapping, lazyLoader, columnPrefix);
         // issue #541 make property optional
         final String property = propertyMapping.getProperty();
         if (property == null) {
@@ -459,23 +678,22 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return foundValues;
   }
 
-  private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
+  private Object getPropertyMappingValue(ResultSetWrapper rsw, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
       throws SQLException {
     if (propertyMapping.getNestedQueryId() != null) {
-      return getNestedQueryMappingValue(rs, metaResultObject, propertyMapping, lazyLoader, columnPrefix);
+      return getNestedQueryMappingValue(rsw, metaResultObject, propertyMapping, lazyLoader, columnPrefix);
     } else if (propertyMapping.getResultSet() != null) {
-      addPendingChildRelation(rs, metaResultObject, propertyMapping);   // TODO is that OK?
+      addPendingChildRelation(rsw, metaResultObject, propertyMapping);   // TODO is that OK?
       return DEFERRED;
     } else {
       final TypeHandler<?> typeHandler = propertyMapping.getTypeHandler();
       final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-      return typeHandler.getResult(rs, column);
+      return getResult(rsw, typeHandler, column);
     }
   }
 
   private List<UnMappedColumnAutoMapping> createAutomaticMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
-    final String mapKey = resultMap.getId() + ":" + columnPrefix;
-    List<UnMappedColumnAutoMapping> autoMapping = autoMappingsCache.get(mapKey);
+    List<UnMappedColumnAutoMapping> autoMapping = rsw.getAutoMappings(resultMap, columnPrefix);
     if (autoMapping == null) {
       autoMapping = new ArrayList<>();
       final List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
@@ -508,7 +726,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
               .doAction(mappedStatement, columnName, (property != null) ? property : propertyName, null);
         }
       }
-      autoMappingsCache.put(mapKey, autoMapping);
+      rsw.putAutoMappings(resultMap, columnPrefix, autoMapping);
     }
     return autoMapping;
   }
@@ -518,7 +736,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     boolean foundValues = false;
     if (!autoMapping.isEmpty()) {
       for (UnMappedColumnAutoMapping mapping : autoMapping) {
-        final Object value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
+        final Object value = getResult(rsw, mapping.typeHandler, mapping.column);
         if (value != null) {
           foundValues = true;
         }
@@ -533,8 +751,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   // MULTIPLE RESULT SETS
 
-  private void linkToParents(ResultSet rs, ResultMapping parentMapping, Object rowValue) throws SQLException {
-    CacheKey parentKey = createKeyForMultipleResults(rs, parentMapping, parentMapping.getColumn(), parentMapping.getForeignColumn());
+  private void linkToParents(ResultSetWrapper rsw, ResultMapping parentMapping, Object rowValue) throws SQLException {
+    CacheKey parentKey = createKeyForMultipleResults(rsw, parentMapping, parentMapping.getColumn(), parentMapping.getForeignColumn());
     List<PendingRelation> parents = pendingRelations.get(parentKey);
     if (parents != null) {
       for (PendingRelation parent : parents) {
@@ -545,8 +763,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
-  private void addPendingChildRelation(ResultSet rs, MetaObject metaResultObject, ResultMapping parentMapping) throws SQLException {
-    CacheKey cacheKey = createKeyForMultipleResults(rs, parentMapping, parentMapping.getColumn(), parentMapping.getColumn());
+  private void addPendingChildRelation(ResultSetWrapper rsw, MetaObject metaResultObject, ResultMapping parentMapping) throws SQLException {
+    CacheKey cacheKey = createKeyForMultipleResults(rsw, parentMapping, parentMapping.getColumn(), parentMapping.getColumn());
     PendingRelation deferLoad = new PendingRelation();
     deferLoad.metaObject = metaResultObject;
     deferLoad.propertyMapping = parentMapping;
@@ -563,14 +781,14 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
-  private CacheKey createKeyForMultipleResults(ResultSet rs, ResultMapping resultMapping, String names, String columns) throws SQLException {
+  private CacheKey createKeyForMultipleResults(ResultSetWrapper rsw, ResultMapping resultMapping, String names, String columns) throws SQLException {
     CacheKey cacheKey = new CacheKey();
     cacheKey.update(resultMapping);
     if (columns != null && names != null) {
       String[] columnsArray = columns.split(",");
       String[] namesArray = names.split(",");
       for (int i = 0; i < columnsArray.length; i++) {
-        Object value = rs.getString(columnsArray[i]);
+        Object value = getString(rsw, columnsArray[i]);
         if (value != null) {
           cacheKey.update(namesArray[i]);
           cacheKey.update(value);
@@ -586,6 +804,14 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private Object createResultObject(ResultSetWrapper rsw, ResultMap resultMap, ResultLoaderMap lazyLoader, String columnPrefix) throws SQLException {
     this.useConstructorMappings = false; // reset previous mapping result
+    if (configuration.isCompiledRowMappersEnabled()) {
+      final ConstructorMapper constructorMapper = getConstructorMapper(rsw, resultMap, columnPrefix);
+      if (constructorMapper != ConstructorMapper.UNSUPPORTED) {
+        final Object resultObject = constructorMapper.create(rsw.getResultSet());
+        this.useConstructorMappings = resultObject != null; // set current mapping result
+        return resultObject;
+      }
+    }
     final List<Class<?>> constructorArgTypes = new ArrayList<>();
     final List<Object> constructorArgs = new ArrayList<>();
     Object resultObject = createResultObject(rsw, resultMap, constructorArgTypes, constructorArgs, columnPrefix);
@@ -629,13 +855,13 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       final Object value;
       try {
         if (constructorMapping.getNestedQueryId() != null) {
-          value = getNestedQueryConstructorValue(rsw.getResultSet(), constructorMapping, columnPrefix);
+          value = getNestedQueryConstructorValue(rsw, constructorMapping, columnPrefix);
         } else if (constructorMapping.getNestedResultMapId() != null) {
           final ResultMap resultMap = configuration.getResultMap(constructorMapping.getNestedResultMapId());
           value = getRowValue(rsw, resultMap, getColumnPrefix(columnPrefix, constructorMapping));
         } else {
           final TypeHandler<?> typeHandler = constructorMapping.getTypeHandler();
-          value = typeHandler.getResult(rsw.getResultSet(), prependPrefix(column, columnPrefix));
+          value = getResult(rsw, typeHandler, prependPrefix(column, columnPrefix));
         }
       } catch (ResultMapException | SQLException e) {
         throw new ExecutorException("Could not process result for mapping: " + constructorMapping, e);
@@ -648,18 +874,25 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   }
 
   private Object createByConstructorSignature(ResultSetWrapper rsw, Class<?> resultType, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) throws SQLException {
+    final Constructor<?> constructor = findConstructorForSignature(rsw, resultType);
+    if (constructor != null) {
+      return createUsingConstructor(rsw, resultType, constructorArgTypes, constructorArgs, constructor);
+    }
+    throw new ExecutorException("No constructor found in " + resultType.getName() + " matching " + rsw.getClassNames());
+  }
+
+  private Constructor<?> findConstructorForSignature(ResultSetWrapper rsw, Class<?> resultType) {
     final Constructor<?>[] constructors = resultType.getDeclaredConstructors();
     final Constructor<?> defaultConstructor = findDefaultConstructor(constructors);
     if (defaultConstructor != null) {
-      return createUsingConstructor(rsw, resultType, constructorArgTypes, constructorArgs, defaultConstructor);
-    } else {
-      for (Constructor<?> constructor : constructors) {
-        if (allowedConstructorUsingTypeHandlers(constructor, rsw.getJdbcTypes())) {
-          return createUsingConstructor(rsw, resultType, constructorArgTypes, constructorArgs, constructor);
-        }
+      return defaultConstructor;
+    }
+    for (Constructor<?> constructor : constructors) {
+      if (allowedConstructorUsingTypeHandlers(constructor, rsw.getJdbcTypes())) {
+        return constructor;
       }
     }
-    throw new ExecutorException("No constructor found in " + resultType.getName() + " matching " + rsw.getClassNames());
+    return null;
   }
 
   private Object createUsingConstructor(ResultSetWrapper rsw, Class<?> resultType, List<Class<?>> constructorArgTypes, List<Object> constructorArgs, Constructor<?> constructor) throws SQLException {
@@ -668,7 +901,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       Class<?> parameterType = constructor.getParameterTypes()[i];
       String columnName = rsw.getColumnNames().get(i);
       TypeHandler<?> typeHandler = rsw.getTypeHandler(parameterType, columnName);
-      Object value = typeHandler.getResult(rsw.getResultSet(), columnName);
+      Object value = typeHandler.getResult(rsw.getResultSet(), i + 1);
       constructorArgTypes.add(parameterType);
       constructorArgs.add(value);
       foundValues = value != null || foundValues;
@@ -676,6 +909,77 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return foundValues ? objectFactory.create(resultType, constructorArgTypes, constructorArgs) : null;
   }
 
+  private ConstructorMapper getConstructorMapper(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+    ConstructorMapper constructorMapper = rsw.getConstructorMapper(resultMap, columnPrefix);
+    if (constructorMapper == null) {
+      constructorMapper = createConstructorMapper(rsw, resultMap, columnPrefix);
+      rsw.putConstructorMapper(resultMap, columnPrefix, constructorMapper);
+    }
+    return constructorMapper;
+  }
+
+  private ConstructorMapper createConstructorMapper(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+    final Class<?> resultType = resultMap.getType();
+    // other object factories and lazy loading proxies need the constructor argument lists
+    if (objectFactory.getClass() != DefaultObjectFactory.class || resultType.isInterface() || Modifier.isAbstract(resultType.getModifiers())
+        || hasTypeHandlerForResultObject(rsw, resultType) || hasLazyNestedQueries(resultMap)) {
+      return ConstructorMapper.UNSUPPORTED;
+    }
+    final List<ResultMapping> constructorMappings = resultMap.getConstructorResultMappings();
+    if (!constructorMappings.isEmpty()) {
+      return createConstructorMapperForMappings(rsw, resultType, constructorMappings, columnPrefix);
+    } else if (reflectorFactory.findForClass(resultType).hasDefaultConstructor() || !shouldApplyAutomaticMappings(resultMap, false)) {
+      return ConstructorMapper.UNSUPPORTED;
+    }
+    final Constructor<?> constructor = findConstructorForSignature(rsw, resultType);
+    if (constructor == null || constructor.getParameterCount() > rsw.getColumnNames().size()) {
+      return ConstructorMapper.UNSUPPORTED;
+    }
+    final Class<?>[] parameterTypes = constructor.getParameterTypes();
+    final int[] columnIndexes = new int[parameterTypes.length];
+    final TypeHandler<?>[] typeHandlers = new TypeHandler<?>[parameterTypes.length];
+    for (int i = 0; i < parameterTypes.length; i++) {
+      columnIndexes[i] = i + 1;
+      typeHandlers[i] = rsw.getTypeHandler(parameterTypes[i], rsw.getColumnNames().get(i));
+    }
+    return ConstructorMapper.forConstructor(constructor, columnIndexes, typeHandlers, null);
+  }
+
+  private ConstructorMapper createConstructorMapperForMappings(ResultSetWrapper rsw, Class<?> resultType, List<ResultMapping> constructorMappings,
+      String columnPrefix) {
+    final Class<?>[] parameterTypes = new Class<?>[constructorMappings.size()];
+    final int[] columnIndexes = new int[parameterTypes.length];
+    final TypeHandler<?>[] typeHandlers = new TypeHandler<?>[parameterTypes.length];
+    for (int i = 0; i < parameterTypes.length; i++) {
+      final ResultMapping constructorMapping = constructorMappings.get(i);
+      if (constructorMapping.getNestedQueryId() != null || constructorMapping.getNestedResultMapId() != null) {
+        return ConstructorMapper.UNSUPPORTED;
+      }
+      parameterTypes[i] = constructorMapping.getJavaType();
+      columnIndexes[i] = rsw.getColumnIndex(prependPrefix(constructorMapping.getColumn(), columnPrefix));
+      typeHandlers[i] = constructorMapping.getTypeHandler();
+      if (columnIndexes[i] < 1) {
+        return ConstructorMapper.UNSUPPORTED;
+      }
+    }
+    try {
+      return ConstructorMapper.forConstructor(resultType.getDeclaredConstructor(parameterTypes), columnIndexes, typeHandlers,
+          constructorMappings.toArray(new ResultMapping[0]));
+    } catch (NoSuchMethodException e) {
+      // reported when the object is created by the object factory
+      return ConstructorMapper.UNSUPPORTED;
+    }
+  }
+
+  private boolean hasLazyNestedQueries(ResultMap resultMap) {
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      if (propertyMapping.getNestedQueryId() != null && propertyMapping.isLazy()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private Constructor<?> findDefaultConstructor(final Constructor<?>[] constructors) {
     if (constructors.length == 1) {
       return constructors[0];
@@ -713,18 +1017,18 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       columnName = rsw.getColumnNames().get(0);
     }
     final TypeHandler<?> typeHandler = rsw.getTypeHandler(resultType, columnName);
-    return typeHandler.getResult(rsw.getResultSet(), columnName);
+    return getResult(rsw, typeHandler, columnName);
   }
 
   //
   // NESTED QUERY
   //
 
-  private Object getNestedQueryConstructorValue(ResultSet rs, ResultMapping constructorMapping, String columnPrefix) throws SQLException {
+  private Object getNestedQueryConstructorValue(ResultSetWrapper rsw, ResultMapping constructorMapping, String columnPrefix) throws SQLException {
     final String nestedQueryId = constructorMapping.getNestedQueryId();
     final MappedStatement nestedQuery = configuration.getMappedStatement(nestedQueryId);
     final Class<?> nestedQueryParameterType = nestedQuery.getParameterMap().getType();
-    final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rs, constructorMapping, nestedQueryParameterType, columnPrefix);
+    final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rsw, constructorMapping, nestedQueryParameterType, columnPrefix);
     Object value = null;
     if (nestedQueryParameterObject != null) {
       final BoundSql nestedBoundSql = nestedQuery.getBoundSql(nestedQueryParameterObject);
@@ -736,13 +1040,13 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return value;
   }
 
-  private Object getNestedQueryMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
+  private Object getNestedQueryMappingValue(ResultSetWrapper rsw, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
       throws SQLException {
     final String nestedQueryId = propertyMapping.getNestedQueryId();
     final String property = propertyMapping.getProperty();
     final MappedStatement nestedQuery = configuration.getMappedStatement(nestedQueryId);
     final Class<?> nestedQueryParameterType = nestedQuery.getParameterMap().getType();
-    final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rs, propertyMapping, nestedQueryParameterType, columnPrefix);
+    final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rsw, propertyMapping, nestedQueryParameterType, columnPrefix);
     Object value = null;
     if (nestedQueryParameterObject != null) {
       final BoundSql nestedBoundSql = nestedQuery.getBoundSql(nestedQueryParameterObject);
@@ -751,10 +1055,20 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       if (executor.isCached(nestedQuery, key)) {
         executor.deferLoad(nestedQuery, metaResultObject, property, key, targetType);
         value = DEFERRED;
+      } else if (propertyMapping.getNestedBatchQueryId() != null && !propertyMapping.isLazy() && batchResultLoaders != null) {
+        batchResultLoaders.computeIfAbsent(propertyMapping, m -> new BatchResultLoader(configuration, executor, m))
+            .addLoad(metaResultObject, property, nestedQueryParameterObject);
+        value = DEFERRED;
       } else {
-        final ResultLoader resultLoader = new ResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql);
+        final BatchResultLoader batchResultLoader = propertyMapping.getNestedBatchQueryId() != null && propertyMapping.isLazy()
+            ? lazyBatchResultLoaders.computeIfAbsent(propertyMapping, m -> new BatchResultLoader(configuration, executor, m)) : null;
+        final ResultLoader resultLoader = new ResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql,
+            batchResultLoader);
         if (propertyMapping.isLazy()) {
           lazyLoader.addLoader(property, metaResultObject, resultLoader);
+          if (batchResultLoader != null) {
+            batchResultLoader.addLazyLoad(resultLoader);
+          }
           value = DEFERRED;
         } else {
           value = resultLoader.loadResult();
@@ -764,32 +1078,41 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return value;
   }
 
-  private Object prepareParameterForNestedQuery(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
+  private void loadBatchedNestedQueries() throws SQLException {
+    if (batchResultLoaders != null) {
+      for (BatchResultLoader batchResultLoader : batchResultLoaders.values()) {
+        batchResultLoader.load();
+      }
+      batchResultLoaders = null;
+    }
+  }
+
+  private Object prepareParameterForNestedQuery(ResultSetWrapper rsw, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
     if (resultMapping.isCompositeResult()) {
-      return prepareCompositeKeyParameter(rs, resultMapping, parameterType, columnPrefix);
+      return prepareCompositeKeyParameter(rsw, resultMapping, parameterType, columnPrefix);
     } else {
-      return prepareSimpleKeyParameter(rs, resultMapping, parameterType, columnPrefix);
+      return prepareSimpleKeyParameter(rsw, resultMapping, parameterType, columnPrefix);
     }
   }
 
-  private Object prepareSimpleKeyParameter(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
+  private Object prepareSimpleKeyParameter(ResultSetWrapper rsw, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
     final TypeHandler<?> typeHandler;
     if (typeHandlerRegistry.hasTypeHandler(parameterType)) {
       typeHandler = typeHandlerRegistry.getTypeHandler(parameterType);
     } else {
       typeHandler = typeHandlerRegistry.getUnknownTypeHandler();
     }
-    return typeHandler.getResult(rs, prependPrefix(resultMapping.getColumn(), columnPrefix));
+    return getResult(rsw, typeHandler, prependPrefix(resultMapping.getColumn(), columnPrefix));
   }
 
-  private Object prepareCompositeKeyParameter(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
+  private Object prepareCompositeKeyParameter(ResultSetWrapper rsw, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
     final Object parameterObject = instantiateParameterObject(parameterType);
     final MetaObject metaObject = configuration.newMetaObject(parameterObject);
     boolean foundValues = false;
     for (ResultMapping innerResultMapping : resultMapping.getComposites()) {
       final Class<?> propType = metaObject.getSetterType(innerResultMapping.getProperty());
       final TypeHandler<?> typeHandler = typeHandlerRegistry.getTypeHandler(propType);
-      final Object propValue = typeHandler.getResult(rs, prependPrefix(innerResultMapping.getColumn(), columnPrefix));
+      final Object propValue = getResult(rsw, typeHandler, prependPrefix(innerResultMapping.getColumn(), columnPrefix));
       // issue #353 & #560 do not execute nested query if key is null
       if (propValue != null) {
         metaObject.setValue(innerResultMapping.getProperty(), propValue);
@@ -814,29 +1137,47 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   //
 
   public ResultMap resolveDiscriminatedResultMap(ResultSet rs, ResultMap resultMap, String columnPrefix) throws SQLException {
-    Set<String> pastDiscriminators = new HashSet<>();
-    Discriminator discriminator = resultMap.getDiscriminator();
-    while (discriminator != null) {
-      final Object value = getDiscriminatorValue(rs, discriminator, columnPrefix);
-      final String discriminatedMapId = discriminator.getMapIdFor(String.valueOf(value));
-      if (configuration.hasResultMap(discriminatedMapId)) {
-        resultMap = configuration.getResultMap(discriminatedMapId);
-        Discriminator lastDiscriminator = discriminator;
-        discriminator = resultMap.getDiscriminator();
-        if (discriminator == lastDiscriminator || !pastDiscriminators.add(discriminatedMapId)) {
-          break;
-        }
-      } else {
-        break;
-      }
+    // reads the discriminator columns by label, as a wrapper would read the column metadata on every call
+    DiscriminatorNode node = DiscriminatorNode.root(configuration, resultMap);
+    while (node.getDiscriminator() != null) {
+      final ResultMapping resultMapping = node.getDiscriminator().getResultMapping();
+      final Object value = resultMapping.getTypeHandler().getResult(rs, prependPrefix(resultMapping.getColumn(), columnPrefix));
+      node = node.next(value);
+    }
+    return node.getResultMap();
+  }
+
+  private ResultMap resolveDiscriminatedResultMap(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+    if (resultMap.getDiscriminator() == null) {
+      return resultMap;
     }
-    return resultMap;
+    DiscriminatorNode node = rsw.getDiscriminatorRoot(resultMap, columnPrefix);
+    if (node == null) {
+      node = DiscriminatorNode.root(configuration, resultMap);
+      rsw.putDiscriminatorRoot(resultMap, columnPrefix, node);
+    }
+    while (node.getDiscriminator() != null) {
+      final Object value = getDiscriminatorValue(rsw, node.getDiscriminator(), columnPrefix);
+      node = node.next(value);
+    }
+    return node.getResultMap();
   }
 
-  private Object getDiscriminatorValue(ResultSet rs, Discriminator discriminator, String columnPrefix) throws SQLException {
+  private Object getDiscriminatorValue(ResultSetWrapper rsw, Discriminator discriminator, String columnPrefix) throws SQLException {
     final ResultMapping resultMapping = discriminator.getResultMapping();
     final TypeHandler<?> typeHandler = resultMapping.getTypeHandler();
-    return typeHandler.getResult(rs, prependPrefix(resultMapping.getColumn(), columnPrefix));
+    return getResult(rsw, typeHandler, prependPrefix(resultMapping.getColumn(), columnPrefix));
+  }
+
+  private Object getResult(ResultSetWrapper rsw, TypeHandler<?> typeHandler, String column) throws SQLException {
+    final int columnIndex = rsw.getColumnIndex(column);
+    // unknown columns are left to the driver to report
+    return columnIndex > 0 ? typeHandler.getResult(rsw.getResultSet(), columnIndex) : typeHandler.getResult(rsw.getResultSet(), column);
+  }
+
+  private String getString(ResultSetWrapper rsw, String column) throws SQLException {
+    final int columnIndex = rsw.getColumnIndex(column);
+    return columnIndex > 0 ? rsw.getResultSet().getString(columnIndex) : rsw.getResultSet().getString(column);
   }
 
   private String prependPrefix(String columnName, String prefix) {
@@ -856,25 +1197,25 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     skipRows(resultSet, rowBounds);
     Object rowValue = previousRowValue;
     while (shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed() && resultSet.next()) {
-      final ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
-      final CacheKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
+      final ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw, resultMap, null);
+      final RowKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
       Object partialObject = nestedResultObjects.get(rowKey);
       // issue #577 && #542
       if (mappedStatement.isResultOrdered()) {
         if (partialObject == null && rowValue != null) {
-          nestedResultObjects.clear();
-          storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
+          clearNestedResultObjects();
+          storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw);
         }
         rowValue = getRowValue(rsw, discriminatedResultMap, rowKey, null, partialObject);
       } else {
         rowValue = getRowValue(rsw, discriminatedResultMap, rowKey, null, partialObject);
         if (partialObject == null) {
-          storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
+          storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw);
         }
       }
     }
     if (rowValue != null && mappedStatement.isResultOrdered() && shouldProcessMoreRows(resultContext, rowBounds)) {
-      storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
+      storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw);
       previousRowValue = null;
     } else if (rowValue != null) {
       previousRowValue = rowValue;
@@ -885,7 +1226,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // GET VALUE FROM ROW FOR NESTED RESULT MAP
   //
 
-  private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, CacheKey combinedKey, String columnPrefix, Object partialObject) throws SQLException {
+  private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, RowKey combinedKey, String columnPrefix, Object partialObject) throws SQLException {
     final String resultMapId = resultMap.getId();
     Object rowValue = partialObject;
     if (rowValue != null) {
@@ -909,7 +1250,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         foundValues = lazyLoader.size() > 0 || foundValues;
         rowValue = foundValues || configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
       }
-      if (combinedKey != CacheKey.NULL_CACHE_KEY) {
+      if (combinedKey != RowKey.NULL) {
         nestedResultObjects.put(combinedKey, rowValue);
       }
     }
@@ -924,14 +1265,14 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // NESTED RESULT MAP (JOIN MAPPING)
   //
 
-  private boolean applyNestedResultMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String parentPrefix, CacheKey parentRowKey, boolean newObject) {
+  private boolean applyNestedResultMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String parentPrefix, RowKey parentRowKey, boolean newObject) {
     boolean foundValues = false;
     for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
       final String nestedResultMapId = resultMapping.getNestedResultMapId();
       if (nestedResultMapId != null && resultMapping.getResultSet() == null) {
         try {
           final String columnPrefix = getColumnPrefix(parentPrefix, resultMapping);
-          final ResultMap nestedResultMap = getNestedResultMap(rsw.getResultSet(), nestedResultMapId, columnPrefix);
+          final ResultMap nestedResultMap = getNestedResultMap(rsw, nestedResultMapId, columnPrefix);
           if (resultMapping.getColumnPrefix() == null) {
             // try to fill circular reference only when columnPrefix
             // is not specified for the nested result map (issue #215)
@@ -943,8 +1284,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
               continue;
             }
           }
-          final CacheKey rowKey = createRowKey(nestedResultMap, rsw, columnPrefix);
-          final CacheKey combinedKey = combineKeys(rowKey, parentRowKey);
+          final RowKey combinedKey = createRowKey(nestedResultMap, rsw, columnPrefix).combine(parentRowKey);
           Object rowValue = nestedResultObjects.get(combinedKey);
           boolean knownValue = rowValue != null;
           instantiateCollectionPropertyIfAppropriate(resultMapping, metaObject); // mandatory
@@ -979,7 +1319,13 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     if (notNullColumns != null && !notNullColumns.isEmpty()) {
       ResultSet rs = rsw.getResultSet();
       for (String column : notNullColumns) {
-        rs.getObject(prependPrefix(column, columnPrefix));
+        final String prefixedColumn = prependPrefix(column, columnPrefix);
+        final int columnIndex = rsw.getColumnIndex(prefixedColumn);
+        if (columnIndex > 0) {
+          rs.getObject(columnIndex);
+        } else {
+          rs.getObject(prefixedColumn);
+        }
         if (!rs.wasNull()) {
           return true;
         }
@@ -996,46 +1342,37 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return true;
   }
 
-  private ResultMap getNestedResultMap(ResultSet rs, String nestedResultMapId, String columnPrefix) throws SQLException {
+  private ResultMap getNestedResultMap(ResultSetWrapper rsw, String nestedResultMapId, String columnPrefix) throws SQLException {
     ResultMap nestedResultMap = configuration.getResultMap(nestedResultMapId);
-    return resolveDiscriminatedResultMap(rs, nestedResultMap, columnPrefix);
+    return resolveDiscriminatedResultMap(rsw, nestedResultMap, columnPrefix);
   }
 
   //
   // UNIQUE RESULT KEY
   //
 
-  private CacheKey createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
-    final CacheKey cacheKey = new CacheKey();
-    cacheKey.update(resultMap.getId());
+  private RowKey createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
+    RowKey.Plan plan = rsw.getRowKeyPlan(resultMap, columnPrefix);
+    if (plan == null) {
+      plan = createRowKeyPlan(resultMap, rsw, columnPrefix);
+      rsw.putRowKeyPlan(resultMap, columnPrefix, plan);
+    }
+    return plan.createKey(rsw.getResultSet());
+  }
+
+  private RowKey.Plan createRowKeyPlan(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
+    final RowKey.PlanBuilder planBuilder = new RowKey.PlanBuilder();
     List<ResultMapping> resultMappings = getResultMappingsForRowKey(resultMap);
     if (resultMappings.isEmpty()) {
       if (Map.class.isAssignableFrom(resultMap.getType())) {
-        createRowKeyForMap(rsw, cacheKey);
+        addRowKeyColumnsForMap(rsw, planBuilder);
       } else {
-        createRowKeyForUnmappedProperties(resultMap, rsw, cacheKey, columnPrefix);
+        addRowKeyColumnsForUnmappedProperties(resultMap, rsw, planBuilder, columnPrefix);
       }
     } else {
-      createRowKeyForMappedProperties(resultMap, rsw, cacheKey, resultMappings, columnPrefix);
-    }
-    if (cacheKey.getUpdateCount() < 2) {
-      return CacheKey.NULL_CACHE_KEY;
+      addRowKeyColumnsForMappedProperties(resultMap, rsw, planBuilder, resultMappings, columnPrefix);
     }
-    return cacheKey;
-  }
-
-  private CacheKey combineKeys(CacheKey rowKey, CacheKey parentRowKey) {
-    if (rowKey.getUpdateCount() > 1 && parentRowKey.getUpdateCount() > 1) {
-      CacheKey combinedKey;
-      try {
-        combinedKey = rowKey.clone();
-      } catch (CloneNotSupportedException e) {
-        throw new ExecutorException("Error cloning cache key.  Cause: " + e, e);
-      }
-      combinedKey.update(parentRowKey);
-      return combinedKey;
-    }
-    return CacheKey.NULL_CACHE_KEY;
+    return planBuilder.build(resultMap.getId(), columnPrefix);
   }
 
   private List<ResultMapping> getResultMappingsForRowKey(ResultMap resultMap) {
@@ -1046,30 +1383,26 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return resultMappings;
   }
 
-  private void createRowKeyForMappedProperties(ResultMap resultMap, ResultSetWrapper rsw, CacheKey cacheKey, List<ResultMapping> resultMappings, String columnPrefix) throws SQLException {
+  private void addRowKeyColumnsForMappedProperties(ResultMap resultMap, ResultSetWrapper rsw, RowKey.PlanBuilder planBuilder, List<ResultMapping> resultMappings,
+      String columnPrefix) throws SQLException {
     for (ResultMapping resultMapping : resultMappings) {
       if (resultMapping.getNestedResultMapId() != null && resultMapping.getResultSet() == null) {
         // Issue #392
         final ResultMap nestedResultMap = configuration.getResultMap(resultMapping.getNestedResultMapId());
-        createRowKeyForMappedProperties(nestedResultMap, rsw, cacheKey, nestedResultMap.getConstructorResultMappings(),
+        addRowKeyColumnsForMappedProperties(nestedResultMap, rsw, planBuilder, nestedResultMap.getConstructorResultMappings(),
             prependPrefix(resultMapping.getColumnPrefix(), columnPrefix));
       } else if (resultMapping.getNestedQueryId() == null) {
         final String column = prependPrefix(resultMapping.getColumn(), columnPrefix);
-        final TypeHandler<?> th = resultMapping.getTypeHandler();
         List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
         // Issue #114
         if (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
-          final Object value = th.getResult(rsw.getResultSet(), column);
-          if (value != null || configuration.isReturnInstanceForEmptyRow()) {
-            cacheKey.update(column);
-            cacheKey.update(value);
-          }
+          planBuilder.addColumn(rsw.getColumnIndex(column), resultMapping.getTypeHandler(), configuration.isReturnInstanceForEmptyRow());
         }
       }
     }
   }
 
-  private void createRowKeyForUnmappedProperties(ResultMap resultMap, ResultSetWrapper rsw, CacheKey cacheKey, String columnPrefix) throws SQLException {
+  private void addRowKeyColumnsForUnmappedProperties(ResultMap resultMap, ResultSetWrapper rsw, RowKey.PlanBuilder planBuilder, String columnPrefix) throws SQLException {
     final MetaClass metaType = MetaClass.forClass(resultMap.getType(), reflectorFactory);
     List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
     for (String column : unmappedColumnNames) {
@@ -1083,23 +1416,14 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
       if (metaType.findProperty(property, configuration.isMapUnderscoreToCamelCase()) != null) {
-        String value = rsw.getResultSet().getString(column);
-        if (value != null) {
-          cacheKey.update(column);
-          cacheKey.update(value);
-        }
+        planBuilder.addStringColumn(rsw.getColumnIndex(column));
       }
     }
   }
 
-  private void createRowKeyForMap(ResultSetWrapper rsw, CacheKey cacheKey) throws SQLException {
-    List<String> columnNames = rsw.getColumnNames();
-    for (String columnName : columnNames) {
-      final String value = rsw.getResultSet().getString(columnName);
-      if (value != null) {
-        cacheKey.update(columnName);
-        cacheKey.update(value);
-      }
+  private void addRowKeyColumnsForMap(ResultSetWrapper rsw, RowKey.PlanBuilder planBuilder) {
+    for (int i = 0; i < rsw.getColumnNames().size(); i++) {
+      planBuilder.addStringColumn(i + 1);
     }
   }
 
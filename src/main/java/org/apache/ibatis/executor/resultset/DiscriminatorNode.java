@@ -0,0 +1,107 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.mapping.Discriminator;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * A step in the resolution of the result map a row is discriminated to. A node holds the result map reached so far
+ * and the discriminator to read next, and remembers the node each discriminator value leads to, so resolving a row
+ * takes one table lookup per discriminator level instead of looking up the cases and result maps again.
+ * <p>
+ * Nodes form a tree rooted at the result map of a statement. The result maps visited on the way to a node are part
+ * of it, so the resolution stops at the same result map as when the discriminator chain is followed row by row.
+ */
+final class DiscriminatorNode {
+
+  private static final Object NULL_VALUE = new Object();
+  // guards against discriminating on a column with unbounded values
+  private static final int MAX_CACHED_VALUES = 256;
+
+  private final Configuration configuration;
+  private final ResultMap resultMap;
+  private final Discriminator discriminator;
+  private final Set<String> pastDiscriminators;
+  private final ConcurrentMap<Object, DiscriminatorNode> nextNodes;
+
+  private DiscriminatorNode(Configuration configuration, ResultMap resultMap, Discriminator discriminator, Set<String> pastDiscriminators) {
+    this.configuration = configuration;
+    this.resultMap = resultMap;
+    this.discriminator = discriminator;
+    this.pastDiscriminators = pastDiscriminators;
+    this.nextNodes = discriminator == null ? null : new ConcurrentHashMap<>();
+  }
+
+  static DiscriminatorNode root(Configuration configuration, ResultMap resultMap) {
+    return new DiscriminatorNode(configuration, resultMap, resultMap.getDiscriminator(), Collections.emptySet());
+  }
+
+  ResultMap getResultMap() {
+    return resultMap;
+  }
+
+  /**
+   * @return the discriminator whose value selects the next node, or null if the resolution ends at this node
+   */
+  Discriminator getDiscriminator() {
+    return discriminator;
+  }
+
+  DiscriminatorNode next(Object value) {
+    final Object key = getKey(value);
+    DiscriminatorNode node = nextNodes.get(key);
+    if (node == null) {
+      final String discriminatedMapId = discriminator.getMapIdFor(String.valueOf(value));
+      if (discriminatedMapId != null && !configuration.hasResultMap(discriminatedMapId)) {
+        // not cached, the result map may still be added to the configuration
+        return new DiscriminatorNode(configuration, resultMap, null, pastDiscriminators);
+      }
+      node = discriminatedMapId == null ? new DiscriminatorNode(configuration, resultMap, null, pastDiscriminators)
+          : newNode(configuration.getResultMap(discriminatedMapId), discriminatedMapId);
+      if (nextNodes.size() < MAX_CACHED_VALUES) {
+        nextNodes.putIfAbsent(key, node);
+      }
+    }
+    return node;
+  }
+
+  private DiscriminatorNode newNode(ResultMap discriminatedResultMap, String discriminatedMapId) {
+    final Discriminator nextDiscriminator = discriminatedResultMap.getDiscriminator();
+    final Set<String> nextPastDiscriminators = new HashSet<>(pastDiscriminators);
+    if (nextDiscriminator == discriminator || !nextPastDiscriminators.add(discriminatedMapId)) {
+      return new DiscriminatorNode(configuration, discriminatedResultMap, null, nextPastDiscriminators);
+    }
+    return new DiscriminatorNode(configuration, discriminatedResultMap, nextDiscriminator, nextPastDiscriminators);
+  }
+
+  private static Object getKey(Object value) {
+    if (value == null) {
+      return NULL_VALUE;
+    }
+    // values are matched by their string form, which only some types share with equals
+    return value instanceof String || value instanceof Number || value instanceof Boolean || value instanceof Character ? value
+        : String.valueOf(value);
+  }
+
+}
@@ -0,0 +1,46 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * The mapping plans derived from the columns of a result set: column indexes, type handlers, mapped and
+ * unmapped column names, auto-mappings, compiled row mappers, constructor mappers and row key plans per result map.
+ * <p>
+ * A layout belongs either to a single {@link ResultSetWrapper} or, when the {@code resultSetLayoutCacheEnabled}
+ * setting is on, to a {@link org.apache.ibatis.mapping.MappedStatement} where it is shared by all the result
+ * sets with the same column signature. Entries are computed on first use and never modified afterwards.
+ *
+ * @since 3.5.3
+ */
+public final class ResultSetLayout {
+
+  final Map<String, Integer> columnIndexMap = new ConcurrentHashMap<>();
+  final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new ConcurrentHashMap<>();
+  final Map<String, List<String>> mappedColumnNamesMap = new ConcurrentHashMap<>();
+  final Map<String, List<String>> unMappedColumnNamesMap = new ConcurrentHashMap<>();
+  final Map<String, List<DefaultResultSetHandler.UnMappedColumnAutoMapping>> autoMappingsMap = new ConcurrentHashMap<>();
+  final Map<String, CompiledRowMapper> compiledRowMappers = new ConcurrentHashMap<>();
+  final Map<String, ConstructorMapper> constructorMappers = new ConcurrentHashMap<>();
+  final Map<String, RowKey.Plan> rowKeyPlans = new ConcurrentHashMap<>();
+  final Map<String, DiscriminatorNode> discriminatorRoots = new ConcurrentHashMap<>();
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -20,13 +20,16 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
@@ -45,11 +48,17 @@ public class ResultSetWrapper {
   private final List<String> columnNames = new ArrayList<>();
   private final List<String> classNames = new ArrayList<>();
   private final List<JdbcType> jdbcTypes = new ArrayList<>();
-  private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new HashMap<>();
-  private final Map<String, List<String>> mappedColumnNamesMap = new HashMap<>();
-  private final Map<String, List<String>> unMappedColumnNamesMap = new HashMap<>();
+  private final ResultSetLayout layout;
 
   public ResultSetWrapper(ResultSet rs, Configuration configuration) throws SQLException {
+    this(rs, configuration, null);
+  }
+
+  /**
+   * @param mappedStatement the statement sharing its result set layouts with this wrapper, or null to use a layout of its own
+   * @since 3.5.3
+   */
+  public ResultSetWrapper(ResultSet rs, Configuration configuration, MappedStatement mappedStatement) throws SQLException {
     super();
     this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
     this.resultSet = rs;
@@ -60,6 +69,22 @@ public class ResultSetWrapper {
       jdbcTypes.add(JdbcType.forCode(metaData.getColumnType(i)));
       classNames.add(metaData.getColumnClassName(i));
     }
+    this.layout = mappedStatement == null ? new ResultSetLayout() : mappedStatement.getResultSetLayout(getColumnSignature(configuration));
+  }
+
+  private CacheKey getColumnSignature(Configuration configuration) {
+    final CacheKey signature = new CacheKey();
+    signature.update(configuration.isMapUnderscoreToCamelCase());
+    signature.update(configuration.isCallSettersOnNulls());
+    signature.update(configuration.getAutoMappingUnknownColumnBehavior());
+    signature.updateAll(columnNames.toArray());
+    signature.updateAll(jdbcTypes.toArray());
+    signature.updateAll(classNames.toArray());
+    return signature;
+  }
+
+  ResultSetLayout getLayout() {
+    return layout;
   }
 
   public ResultSet getResultSet() {
@@ -87,6 +112,36 @@ public class ResultSetWrapper {
     return null;
   }
 
+  /**
+   * Gets the index of a column as expected by the index based getters of {@link ResultSet}.
+   * Like most drivers do for labels, the first column matching the name regardless of case wins.
+   * Indexes are resolved once per column name and result set.
+   *
+   * @param columnName
+   * @return the 1-based column index, or -1 if the result set has no such column
+   */
+  public int getColumnIndex(String columnName) {
+    if (columnName == null) {
+      return -1;
+    }
+    Integer columnIndex = layout.columnIndexMap.get(columnName);
+    if (columnIndex == null) {
+      columnIndex = findColumnIndex(columnName);
+      layout.columnIndexMap.put(columnName, columnIndex);
+    }
+    return columnIndex;
+  }
+
+  private int findColumnIndex(String columnName) {
+    final String upperColumnName = columnName.toUpperCase(Locale.ENGLISH);
+    for (int i = 0; i < columnNames.size(); i++) {
+      if (columnNames.get(i).toUpperCase(Locale.ENGLISH).equals(upperColumnName)) {
+        return i + 1;
+      }
+    }
+    return -1;
+  }
+
   /**
    * Gets the type handler to use when reading the result set.
    * Tries to get from the TypeHandlerRegistry by searching for the property type.
@@ -98,10 +153,9 @@ public class ResultSetWrapper {
    */
   public TypeHandler<?> getTypeHandler(Class<?> propertyType, String columnName) {
     TypeHandler<?> handler = null;
-    Map<Class<?>, TypeHandler<?>> columnHandlers = typeHandlerMap.get(columnName);
+    Map<Class<?>, TypeHandler<?>> columnHandlers = layout.typeHandlerMap.get(columnName);
     if (columnHandlers == null) {
-      columnHandlers = new HashMap<>();
-      typeHandlerMap.put(columnName, columnHandlers);
+      columnHandlers = layout.typeHandlerMap.computeIfAbsent(columnName, k -> new ConcurrentHashMap<>());
     } else {
       handler = columnHandlers.get(propertyType);
     }
@@ -154,28 +208,68 @@ public class ResultSetWrapper {
         unmappedColumnNames.add(columnName);
       }
     }
-    mappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), mappedColumnNames);
-    unMappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), unmappedColumnNames);
+    layout.mappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), mappedColumnNames);
+    layout.unMappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), unmappedColumnNames);
   }
 
   public List<String> getMappedColumnNames(ResultMap resultMap, String columnPrefix) throws SQLException {
-    List<String> mappedColumnNames = mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+    List<String> mappedColumnNames = layout.mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
     if (mappedColumnNames == null) {
       loadMappedAndUnmappedColumnNames(resultMap, columnPrefix);
-      mappedColumnNames = mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+      mappedColumnNames = layout.mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
     }
     return mappedColumnNames;
   }
 
   public List<String> getUnmappedColumnNames(ResultMap resultMap, String columnPrefix) throws SQLException {
-    List<String> unMappedColumnNames = unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+    List<String> unMappedColumnNames = layout.unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
     if (unMappedColumnNames == null) {
       loadMappedAndUnmappedColumnNames(resultMap, columnPrefix);
-      unMappedColumnNames = unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+      unMappedColumnNames = layout.unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
     }
     return unMappedColumnNames;
   }
 
+  List<DefaultResultSetHandler.UnMappedColumnAutoMapping> getAutoMappings(ResultMap resultMap, String columnPrefix) {
+    return layout.autoMappingsMap.get(getMapKey(resultMap, columnPrefix));
+  }
+
+  void putAutoMappings(ResultMap resultMap, String columnPrefix, List<DefaultResultSetHandler.UnMappedColumnAutoMapping> autoMappings) {
+    layout.autoMappingsMap.put(getMapKey(resultMap, columnPrefix), autoMappings);
+  }
+
+  CompiledRowMapper getCompiledRowMapper(ResultMap resultMap, String columnPrefix) {
+    return layout.compiledRowMappers.get(getMapKey(resultMap, columnPrefix));
+  }
+
+  void putCompiledRowMapper(ResultMap resultMap, String columnPrefix, CompiledRowMapper rowMapper) {
+    layout.compiledRowMappers.put(getMapKey(resultMap, columnPrefix), rowMapper);
+  }
+
+  ConstructorMapper getConstructorMapper(ResultMap resultMap, String columnPrefix) {
+    return layout.constructorMappers.get(getMapKey(resultMap, columnPrefix));
+  }
+
+  void putConstructorMapper(ResultMap resultMap, String columnPrefix, ConstructorMapper constructorMapper) {
+    layout.constructorMappers.put(getMapKey(resultMap, columnPrefix), constructorMapper);
+  }
+
+  RowKey.Plan getRowKeyPlan(ResultMap resultMap, String columnPrefix) {
+    return layout.rowKeyPlans.get(getMapKey(resultMap, columnPrefix));
+  }
+
+  void putRowKeyPlan(ResultMap resultMap, String columnPrefix, RowKey.Plan plan) {
+    layout.rowKeyPlans.put(getMapKey(resultMap, columnPrefix), plan);
+  }
+
+  DiscriminatorNode getDiscriminatorRoot(ResultMap resultMap, String columnPrefix) {
+    return layout.discriminatorRoots.get(getMapKey(resultMap, columnPrefix));
+  }
+
+  void putDiscriminatorRoot(ResultMap resultMap, String columnPrefix, DiscriminatorNode root) {
+    layout.discriminatorRoots.put(getMapKey(resultMap, columnPrefix), root);
+  }
+
   private String getMapKey(ResultMap resultMap, String columnPrefix) {
     return resultMap.getId() + ":" + columnPrefix;
   }
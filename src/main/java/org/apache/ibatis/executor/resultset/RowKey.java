@@ -0,0 +1,227 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.reflection.ArrayUtil;
+import org.apache.ibatis.type.PrimitiveTypeHandler;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Identifies the object a nested result map creates from a row, so the rows of a join repeating the same object
+ * are merged into it. A key holds the values of the columns selected by a {@link Plan}, which is built once per
+ * result map, column prefix and column layout: {@code int} and {@code long} id columns are read and hashed as
+ * primitives, the other columns as objects. The key of a nested object is combined with the key of its parent
+ * by reference, without copying it.
+ * <p>
+ * Two keys are equal when they were created by plans for the same result map and column prefix, hold the same
+ * values and have equal parents, which matches the keys previously built as {@link org.apache.ibatis.cache.CacheKey}.
+ */
+final class RowKey {
+
+  /**
+   * The key of a row without any value identifying it. Objects created for this key are never merged.
+   */
+  static final RowKey NULL = new RowKey(null, null, 0L, null, null, 0);
+
+  private static final long[] NO_NUMBERS = new long[0];
+  private static final Object[] NO_VALUES = new Object[0];
+
+  private final Plan plan;
+  private final long[] numbers;
+  private final long nullNumbers;
+  private final Object[] values;
+  private final RowKey parent;
+  private final int hashCode;
+
+  private RowKey(Plan plan, long[] numbers, long nullNumbers, Object[] values, RowKey parent, int hashCode) {
+    this.plan = plan;
+    this.numbers = numbers;
+    this.nullNumbers = nullNumbers;
+    this.values = values;
+    this.parent = parent;
+    this.hashCode = hashCode;
+  }
+
+  /**
+   * Combines the key of a nested object with the key of its parent.
+   *
+   * @return the combined key, or {@link #NULL} if one of the keys is
+   */
+  RowKey combine(RowKey parentKey) {
+    if (this == NULL || parentKey == NULL) {
+      return NULL;
+    }
+    return new RowKey(plan, numbers, nullNumbers, values, parentKey, 31 * hashCode + parentKey.hashCode);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (this == object) {
+      return true;
+    }
+    if (!(object instanceof RowKey)) {
+      return false;
+    }
+    final RowKey other = (RowKey) object;
+    if (hashCode != other.hashCode || nullNumbers != other.nullNumbers || plan == null || other.plan == null
+        || !plan.isSameKeyAs(other.plan) || !Arrays.equals(numbers, other.numbers)) {
+      return false;
+    }
+    for (int i = 0; i < values.length; i++) {
+      if (!ArrayUtil.equals(values[i], other.values[i])) {
+        return false;
+      }
+    }
+    return parent == null ? other.parent == null : parent.equals(other.parent);
+  }
+
+  @Override
+  public String toString() {
+    if (this == NULL) {
+      return "RowKey[NULL]";
+    }
+    return "RowKey[" + plan.resultMapId + ":" + plan.columnPrefix + " " + Arrays.toString(numbers) + " " + Arrays.deepToString(values)
+        + (parent == null ? "" : " in " + parent) + "]";
+  }
+
+  /**
+   * The columns identifying the rows of a result map in a column layout.
+   */
+  static final class Plan {
+
+    private final String resultMapId;
+    private final String columnPrefix;
+    private final Column[] columns;
+    private final int numberCount;
+    private final int valueCount;
+
+    private Plan(String resultMapId, String columnPrefix, List<Column> columns, int numberCount, int valueCount) {
+      this.resultMapId = resultMapId;
+      this.columnPrefix = columnPrefix;
+      this.columns = columns.toArray(new Column[0]);
+      this.numberCount = numberCount;
+      this.valueCount = valueCount;
+    }
+
+    /**
+     * Creates the key of the current row.
+     *
+     * @return the key, or {@link RowKey#NULL} if no column identifies the row
+     */
+    RowKey createKey(ResultSet rs) throws SQLException {
+      final long[] numbers = numberCount == 0 ? NO_NUMBERS : new long[numberCount];
+      final Object[] values = valueCount == 0 ? NO_VALUES : new Object[valueCount];
+      long nullNumbers = 0L;
+      int hash = resultMapId.hashCode();
+      boolean identified = false;
+      for (Column column : columns) {
+        if (column.primitiveType != null) {
+          final PrimitiveTypeHandler typeHandler = (PrimitiveTypeHandler) column.typeHandler;
+          final long value = column.primitiveType == int.class ? typeHandler.getIntResult(rs, column.columnIndex)
+              : typeHandler.getLongResult(rs, column.columnIndex);
+          if (value == 0 && rs.wasNull()) {
+            nullNumbers |= 1L << column.slot;
+            identified = identified || column.nullValueIdentifies;
+            hash = 31 * hash - 1;
+          } else {
+            numbers[column.slot] = value;
+            identified = true;
+            hash = 31 * hash + Long.hashCode(value);
+          }
+        } else {
+          final Object value = column.typeHandler == null ? rs.getString(column.columnIndex) : column.typeHandler.getResult(rs, column.columnIndex);
+          values[column.slot] = value;
+          identified = identified || value != null || column.nullValueIdentifies;
+          hash = 31 * hash + ArrayUtil.hashCode(value);
+        }
+      }
+      return identified ? new RowKey(this, numbers, nullNumbers, values, null, hash) : NULL;
+    }
+
+    private boolean isSameKeyAs(Plan other) {
+      return this == other || resultMapId.equals(other.resultMapId)
+          && (columnPrefix == null ? other.columnPrefix == null : columnPrefix.equals(other.columnPrefix));
+    }
+
+  }
+
+  private static final class Column {
+    private final int columnIndex;
+    private final TypeHandler<?> typeHandler;
+    private final Class<?> primitiveType;
+    private final int slot;
+    private final boolean nullValueIdentifies;
+
+    Column(int columnIndex, TypeHandler<?> typeHandler, Class<?> primitiveType, int slot, boolean nullValueIdentifies) {
+      this.columnIndex = columnIndex;
+      this.typeHandler = typeHandler;
+      this.primitiveType = primitiveType;
+      this.slot = slot;
+      this.nullValueIdentifies = nullValueIdentifies;
+    }
+  }
+
+  /**
+   * Collects the columns of a {@link Plan}.
+   */
+  static final class PlanBuilder {
+
+    private final List<Column> columns = new ArrayList<>();
+    private int numberCount;
+    private int valueCount;
+
+    /**
+     * Adds a column read by a type handler.
+     *
+     * @param nullValueIdentifies whether a null value identifies the row
+     */
+    PlanBuilder addColumn(int columnIndex, TypeHandler<?> typeHandler, boolean nullValueIdentifies) {
+      final Class<?> primitiveType = PrimitiveTypeHandler.resolvePrimitiveType(typeHandler);
+      // the nulls of primitive columns are tracked in the bits of a long
+      if ((primitiveType == int.class || primitiveType == long.class) && numberCount < Long.SIZE) {
+        columns.add(new Column(columnIndex, typeHandler, primitiveType, numberCount++, nullValueIdentifies));
+      } else {
+        columns.add(new Column(columnIndex, typeHandler, null, valueCount++, nullValueIdentifies));
+      }
+      return this;
+    }
+
+    /**
+     * Adds a column read as a string, whose null values do not identify the row.
+     */
+    PlanBuilder addStringColumn(int columnIndex) {
+      columns.add(new Column(columnIndex, null, null, valueCount++, false));
+      return this;
+    }
+
+    Plan build(String resultMapId, String columnPrefix) {
+      return new Plan(resultMapId, columnPrefix, columns, numberCount, valueCount);
+    }
+
+  }
+
+}
@@ -0,0 +1,56 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.sharding;
+
+import java.util.Comparator;
+
+import org.apache.ibatis.mapping.MappedStatement;
+
+/**
+ * Chooses the shard a statement runs on.
+ *
+ * @since 3.5.3
+ * @see ShardingExecutor
+ */
+@FunctionalInterface
+public interface ShardFunction {
+
+  /**
+   * The shard id that scatters a statement to all the shards. Inserts cannot be scattered.
+   */
+  String SCATTER = "*";
+
+  /**
+   * Returns the shard of the statement.
+   *
+   * @param ms the statement
+   * @param parameter the parameter of the statement
+   * @return the id of the shard, or {@link #SCATTER} to run the statement on all the shards
+   */
+  String getShard(MappedStatement ms, Object parameter);
+
+  /**
+   * Returns the order of the merged results of a scattered select. When the results of each shard are already
+   * sorted by the same order, merging them keeps the global order.
+   *
+   * @param ms the statement
+   * @return the order of the merged results, or {@code null} to keep them in shard order
+   */
+  default Comparator<Object> getMergeOrder(MappedStatement ms) {
+    return null;
+  }
+
+}
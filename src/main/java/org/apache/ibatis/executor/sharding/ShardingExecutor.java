@@ -0,0 +1,393 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.sharding;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.AsyncExecutors;
+import org.apache.ibatis.executor.BatchExecutor;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.ReuseExecutor;
+import org.apache.ibatis.executor.SimpleExecutor;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.Discriminator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
+
+/**
+ * Routes each statement to one of several shards, each with its own executor and transaction.
+ * <p>
+ * The {@link ShardFunction} chooses the shard of a statement. A statement it marks with {@link ShardFunction#SCATTER}
+ * is scattered: it runs on all the shards in parallel, the update counts are summed and the selected lists are merged. The row bounds of
+ * a scattered select are pushed down to the shards as a limit of {@code offset + limit} rows and applied again to
+ * the merged list.
+ * <p>
+ * Nested selects run on the shard of the row they belong to. A select with lazy nested selects cannot be scattered
+ * though, as its lazy loaders would run on another thread and no longer know the shard of their row.
+ * <p>
+ * Commit and rollback are done on each shard in turn, so they are not atomic across the shards.
+ *
+ * @since 3.5.3
+ */
+public class ShardingExecutor implements Executor {
+
+  private static final Log log = LogFactory.getLog(ShardingExecutor.class);
+
+  private final Configuration configuration;
+  private final Map<String, Executor> shards;
+  private final ShardFunction shardFunction;
+
+  private boolean closed;
+
+  /**
+   * @param configuration the configuration
+   * @param shards the executors of the shards by shard id
+   * @param shardFunction the function choosing the shard of each statement
+   */
+  public ShardingExecutor(Configuration configuration, Map<String, Executor> shards, ShardFunction shardFunction) {
+    if (shards.isEmpty()) {
+      throw new IllegalArgumentException("At least one shard is required.");
+    }
+    this.configuration = configuration;
+    this.shards = new LinkedHashMap<>(shards);
+    this.shardFunction = shardFunction;
+  }
+
+  /**
+   * Creates the executor of a shard. Unlike {@link Configuration#newExecutor(Transaction, ExecutorType)} it is
+   * neither cached nor intercepted, as that is done once around the sharding executor.
+   *
+   * @param configuration the configuration
+   * @param transaction the transaction of the shard
+   * @param executorType the executor type
+   * @return the executor of the shard
+   */
+  public static Executor newShardExecutor(Configuration configuration, Transaction transaction, ExecutorType executorType) {
+    executorType = executorType == null ? configuration.getDefaultExecutorType() : executorType;
+    if (ExecutorType.BATCH == executorType) {
+      return new BatchExecutor(configuration, transaction);
+    } else if (ExecutorType.REUSE == executorType) {
+      return new ReuseExecutor(configuration, transaction);
+    } else {
+      return new SimpleExecutor(configuration, transaction);
+    }
+  }
+
+  @Override
+  public int update(MappedStatement ms, Object parameter) throws SQLException {
+    final String shard = getShard(ms, parameter);
+    if (!ShardFunction.SCATTER.equals(shard)) {
+      return shards.get(shard).update(ms, parameter);
+    }
+    if (ms.getSqlCommandType() == SqlCommandType.INSERT) {
+      throw new ExecutorException("Insert statement '" + ms.getId()
+          + "' cannot be scattered, it would insert its rows into every shard.");
+    }
+    int updateCount = 0;
+    for (Integer count : scatter(executor -> executor.update(ms, parameter))) {
+      if (count == BatchExecutor.BATCH_UPDATE_RETURN_VALUE) {
+        return count;
+      }
+      updateCount += count;
+    }
+    return updateCount;
+  }
+
+  @Override
+  public <E> List<E> query(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler) throws SQLException {
+    final BoundSql boundSql = ms.getBoundSql(parameter);
+    final CacheKey key = createCacheKey(ms, parameter, rowBounds, boundSql);
+    return query(ms, parameter, rowBounds, resultHandler, key, boundSql);
+  }
+
+  @Override
+  public <E> List<E> query(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, CacheKey key, BoundSql boundSql) throws SQLException {
+    final String shard = getShard(ms, parameter);
+    if (!ShardFunction.SCATTER.equals(shard)) {
+      return shards.get(shard).query(ms, parameter, rowBounds, resultHandler, key, boundSql);
+    }
+    if (hasLazyNestedQueries(ms)) {
+      throw new ExecutorException("Statement '" + ms.getId()
+          + "' has lazy nested selects and cannot be scattered, it must be routed to a single shard.");
+    }
+    final RowBounds shardRowBounds = pushDown(rowBounds);
+    final List<E> merged = new ArrayList<>();
+    for (List<E> list : scatter(executor -> executor.<E>query(ms, parameter, shardRowBounds, NO_RESULT_HANDLER, key, boundSql))) {
+      merged.addAll(list);
+    }
+    final Comparator<Object> order = shardFunction.getMergeOrder(ms);
+    if (order != null) {
+      // the shard lists are sorted runs, which the sort merges in O(n log k) for k shards
+      merged.sort(order);
+    }
+    final List<E> results = slice(merged, rowBounds);
+    if (resultHandler == NO_RESULT_HANDLER) {
+      return results;
+    }
+    handleResults(results, resultHandler);
+    return Collections.emptyList();
+  }
+
+  @Override
+  public <E> Cursor<E> queryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds) throws SQLException {
+    final String shard = getShard(ms, parameter);
+    if (ShardFunction.SCATTER.equals(shard)) {
+      throw new ExecutorException("Cursor statement '" + ms.getId() + "' cannot be scattered, it must be routed to a single shard.");
+    }
+    return shards.get(shard).queryCursor(ms, parameter, rowBounds);
+  }
+
+  @Override
+  public List<BatchResult> flushStatements() throws SQLException {
+    final List<BatchResult> results = new ArrayList<>();
+    for (Executor executor : shards.values()) {
+      results.addAll(executor.flushStatements());
+    }
+    return results;
+  }
+
+  @Override
+  public void commit(boolean required) throws SQLException {
+    for (Executor executor : shards.values()) {
+      executor.commit(required);
+    }
+  }
+
+  @Override
+  public void rollback(boolean required) throws SQLException {
+    SQLException failure = null;
+    for (Executor executor : shards.values()) {
+      try {
+        executor.rollback(required);
+      } catch (SQLException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  @Override
+  public CacheKey createCacheKey(MappedStatement ms, Object parameterObject, RowBounds rowBounds, BoundSql boundSql) {
+    final CacheKey cacheKey = shards.values().iterator().next().createCacheKey(ms, parameterObject, rowBounds, boundSql);
+    final String shard = getShard(ms, parameterObject);
+    cacheKey.update(shard);
+    return cacheKey;
+  }
+
+  @Override
+  public boolean isCached(MappedStatement ms, CacheKey key) {
+    return false;
+  }
+
+  @Override
+  public void clearLocalCache() {
+    for (Executor executor : shards.values()) {
+      executor.clearLocalCache();
+    }
+  }
+
+  @Override
+  public void deferLoad(MappedStatement ms, MetaObject resultObject, String property, CacheKey key, Class<?> targetType) {
+    // nested selects are loaded by the executor of the shard that selected the parent row
+    throw new ExecutorException("Deferred loading is done by the executor of each shard.");
+  }
+
+  /**
+   * @return the transaction of the first shard
+   */
+  @Override
+  public Transaction getTransaction() {
+    if (closed) {
+      throw new ExecutorException("Executor was closed.");
+    }
+    return shards.values().iterator().next().getTransaction();
+  }
+
+  @Override
+  public void close(boolean forceRollback) {
+    for (Executor executor : shards.values()) {
+      try {
+        executor.close(forceRollback);
+      } catch (RuntimeException e) {
+        // Ignore. There's nothing that can be done at this point.
+        log.warn("Unexpected exception on closing a shard.  Cause: " + e);
+      }
+    }
+    closed = true;
+  }
+
+  @Override
+  public boolean isClosed() {
+    return closed;
+  }
+
+  @Override
+  public void setExecutorWrapper(Executor executor) {
+    // the shards keep themselves as wrapper so that nested selects stay on their shard
+  }
+
+  private String getShard(MappedStatement ms, Object parameter) {
+    if (closed) {
+      throw new ExecutorException("Executor was closed.");
+    }
+    final String shard = shards.size() == 1 ? shards.keySet().iterator().next() : shardFunction.getShard(ms, parameter);
+    if (shard == null) {
+      throw new ExecutorException("Statement '" + ms.getId() + "' was not routed to a shard. The shard function must "
+          + "return the id of a shard, or ShardFunction.SCATTER to run it on all the shards.");
+    }
+    if (!ShardFunction.SCATTER.equals(shard) && !shards.containsKey(shard)) {
+      throw new ExecutorException("Statement '" + ms.getId() + "' was routed to unknown shard '" + shard + "'.");
+    }
+    return shard;
+  }
+
+  private boolean hasLazyNestedQueries(MappedStatement ms) {
+    final Set<String> visitedResultMapIds = new HashSet<>();
+    for (ResultMap resultMap : ms.getResultMaps()) {
+      if (hasLazyNestedQueries(resultMap, visitedResultMapIds)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean hasLazyNestedQueries(ResultMap resultMap, Set<String> visitedResultMapIds) {
+    if (!visitedResultMapIds.add(resultMap.getId())) {
+      return false;
+    }
+    for (ResultMapping resultMapping : resultMap.getResultMappings()) {
+      if (resultMapping.getNestedQueryId() != null && resultMapping.isLazy()) {
+        return true;
+      }
+      final String nestedResultMapId = resultMapping.getNestedResultMapId();
+      if (nestedResultMapId != null && configuration.hasResultMap(nestedResultMapId)
+          && hasLazyNestedQueries(configuration.getResultMap(nestedResultMapId), visitedResultMapIds)) {
+        return true;
+      }
+    }
+    final Discriminator discriminator = resultMap.getDiscriminator();
+    if (discriminator != null) {
+      for (String discriminatedMapId : discriminator.getDiscriminatorMap().values()) {
+        if (configuration.hasResultMap(discriminatedMapId)
+            && hasLazyNestedQueries(configuration.getResultMap(discriminatedMapId), visitedResultMapIds)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private <T> List<T> scatter(ShardCall<T> call) throws SQLException {
+    final List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+    for (Executor executor : shards.values()) {
+      futures.add(CompletableFuture.supplyAsync(() -> {
+        try {
+          return call.apply(executor);
+        } catch (SQLException e) {
+          throw new CompletionException(e);
+        }
+      }, AsyncExecutors.getExecutor(configuration)));
+    }
+    // wait for every shard, so that none of them is still in use when a failure is thrown
+    final List<T> results = new ArrayList<>(futures.size());
+    Throwable failure = null;
+    for (CompletableFuture<T> future : futures) {
+      try {
+        results.add(future.join());
+      } catch (CompletionException e) {
+        final Throwable cause = e.getCause() == null ? e : e.getCause();
+        if (failure == null) {
+          failure = cause;
+        } else {
+          failure.addSuppressed(cause);
+        }
+      }
+    }
+    if (failure instanceof SQLException) {
+      throw (SQLException) failure;
+    } else if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure instanceof Error) {
+      throw (Error) failure;
+    } else if (failure != null) {
+      throw new ExecutorException("Error scattering statement.  Cause: " + failure, failure);
+    }
+    return results;
+  }
+
+  private static RowBounds pushDown(RowBounds rowBounds) {
+    if (rowBounds.getOffset() == RowBounds.NO_ROW_OFFSET) {
+      return rowBounds;
+    }
+    final long limit = (long) rowBounds.getOffset() + rowBounds.getLimit();
+    return new RowBounds(RowBounds.NO_ROW_OFFSET, (int) Math.min(limit, RowBounds.NO_ROW_LIMIT));
+  }
+
+  private static <E> List<E> slice(List<E> list, RowBounds rowBounds) {
+    final int from = Math.min(rowBounds.getOffset(), list.size());
+    final int to = (int) Math.min((long) from + rowBounds.getLimit(), list.size());
+    return from == 0 && to == list.size() ? list : new ArrayList<>(list.subList(from, to));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <E> void handleResults(List<E> results, ResultHandler resultHandler) {
+    final DefaultResultContext<E> resultContext = new DefaultResultContext<>();
+    for (E result : results) {
+      resultContext.nextResultObject(result);
+      ((ResultHandler<E>) resultHandler).handleResult(resultContext);
+      if (resultContext.isStopped()) {
+        break;
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface ShardCall<T> {
+    T apply(Executor executor) throws SQLException;
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -18,13 +18,18 @@ package org.apache.ibatis.mapping;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.resultset.ResultSetLayout;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.reflection.PropertyReader;
 import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.session.Configuration;
 
@@ -33,6 +38,8 @@ import org.apache.ibatis.session.Configuration;
  */
 public final class MappedStatement {
 
+  private static final int MAX_RESULT_SET_LAYOUTS = 64;
+
   private String resource;
   private Configuration configuration;
   private String id;
@@ -56,6 +63,8 @@ public final class MappedStatement {
   private Log statementLog;
   private LanguageDriver lang;
   private String[] resultSets;
+  private final Map<Class<?>, Map<String, PropertyReader>> parameterReaders = new ConcurrentHashMap<>();
+  private final Map<CacheKey, ResultSetLayout> resultSetLayouts = new ConcurrentHashMap<>();
 
   MappedStatement() {
     // constructor disabled
@@ -314,6 +323,42 @@ public final class MappedStatement {
     return boundSql;
   }
 
+  /**
+   * Returns the reader of a parameter property, resolved once per parameter type.
+   *
+   * @since 3.5.3
+   */
+  public PropertyReader getParameterReader(Class<?> parameterType, String property) {
+    Map<String, PropertyReader> readers = parameterReaders.get(parameterType);
+    if (readers == null) {
+      readers = parameterReaders.computeIfAbsent(parameterType, k -> new ConcurrentHashMap<>());
+    }
+    PropertyReader reader = readers.get(property);
+    if (reader == null) {
+      reader = readers.computeIfAbsent(property,
+          k -> PropertyReader.forProperty(parameterType, property, configuration.getReflectorFactory()));
+    }
+    return reader;
+  }
+
+  /**
+   * Returns the result set layout shared by the result sets of this statement with the given column signature.
+   * Once {@value #MAX_RESULT_SET_LAYOUTS} signatures are known, further ones get a layout of their own.
+   *
+   * @since 3.5.3
+   */
+  public ResultSetLayout getResultSetLayout(CacheKey columnSignature) {
+    ResultSetLayout layout = resultSetLayouts.get(columnSignature);
+    if (layout == null) {
+      layout = new ResultSetLayout();
+      if (resultSetLayouts.size() < MAX_RESULT_SET_LAYOUTS) {
+        final ResultSetLayout existing = resultSetLayouts.putIfAbsent(columnSignature, layout);
+        layout = existing != null ? existing : layout;
+      }
+    }
+    return layout;
+  }
+
   private static String[] delimitedStringToArray(String in) {
     if (in == null || in.trim().length() == 0) {
       return null;
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -38,6 +38,8 @@ public class ResultMapping {
   private TypeHandler<?> typeHandler;
   private String nestedResultMapId;
   private String nestedQueryId;
+  private String nestedBatchQueryId;
+  private List<String> batchKeyProperties;
   private Set<String> notNullColumns;
   private String columnPrefix;
   private List<ResultFlag> flags;
@@ -92,6 +94,22 @@ public class ResultMapping {
       return this;
     }
 
+    /**
+     * @since 3.5.3
+     */
+    public Builder nestedBatchQueryId(String nestedBatchQueryId) {
+      resultMapping.nestedBatchQueryId = nestedBatchQueryId;
+      return this;
+    }
+
+    /**
+     * @since 3.5.3
+     */
+    public Builder batchKeyProperties(List<String> batchKeyProperties) {
+      resultMapping.batchKeyProperties = batchKeyProperties;
+      return this;
+    }
+
     public Builder resultSet(String resultSet) {
       resultMapping.resultSet = resultSet;
       return this;
@@ -136,6 +154,9 @@ public class ResultMapping {
       // lock down collections
       resultMapping.flags = Collections.unmodifiableList(resultMapping.flags);
       resultMapping.composites = Collections.unmodifiableList(resultMapping.composites);
+      if (resultMapping.batchKeyProperties != null) {
+        resultMapping.batchKeyProperties = Collections.unmodifiableList(resultMapping.batchKeyProperties);
+      }
       resolveTypeHandler();
       validate();
       return resultMapping;
@@ -154,6 +175,15 @@ public class ResultMapping {
       if (resultMapping.nestedResultMapId == null && resultMapping.column == null && resultMapping.composites.isEmpty()) {
         throw new IllegalStateException("Mapping is missing column attribute for property " + resultMapping.property);
       }
+      if (resultMapping.nestedBatchQueryId != null) {
+        if (resultMapping.nestedQueryId == null) {
+          throw new IllegalStateException("Cannot define a batch select without a select in property " + resultMapping.property);
+        }
+        int numKeys = resultMapping.composites.isEmpty() ? 1 : resultMapping.composites.size();
+        if (resultMapping.batchKeyProperties == null || resultMapping.batchKeyProperties.size() != numKeys) {
+          throw new IllegalStateException("There should be the same number of columns and batchKey properties in property " + resultMapping.property);
+        }
+      }
       if (resultMapping.getResultSet() != null) {
         int numColumns = 0;
         if (resultMapping.column != null) {
@@ -211,6 +241,20 @@ public class ResultMapping {
     return nestedQueryId;
   }
 
+  /**
+   * @since 3.5.3
+   */
+  public String getNestedBatchQueryId() {
+    return nestedBatchQueryId;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public List<String> getBatchKeyProperties() {
+    return batchKeyProperties;
+  }
+
   public Set<String> getNotNullColumns() {
     return notNullColumns;
   }
@@ -291,6 +335,8 @@ public class ResultMapping {
     //sb.append(", typeHandler=").append(typeHandler); // typeHandler also doesn't have a useful .toString()
     sb.append(", nestedResultMapId='").append(nestedResultMapId).append('\'');
     sb.append(", nestedQueryId='").append(nestedQueryId).append('\'');
+    sb.append(", nestedBatchQueryId='").append(nestedBatchQueryId).append('\'');
+    sb.append(", batchKeyProperties=").append(batchKeyProperties);
     sb.append(", notNullColumns=").append(notNullColumns);
     sb.append(", columnPrefix='").append(columnPrefix).append('\'');
     sb.append(", flags=").append(flags);
@@ -0,0 +1,104 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.property.PropertyTokenizer;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
+
+/**
+ * Reads a (possibly nested) bean property with the getter invokers resolved once for a given type,
+ * so values can be read without creating a {@link MetaObject} per object.
+ * <p>
+ * Only plain bean paths such as {@code name} or {@code author.name} are readable. Paths that go through
+ * indexed properties, maps, collections or arrays must be read with a {@link MetaObject}.
+ */
+public final class PropertyReader {
+
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  private final String[] names;
+  private final Invoker[] invokers;
+
+  private PropertyReader(String[] names, Invoker[] invokers) {
+    this.names = names;
+    this.invokers = invokers;
+  }
+
+  public static PropertyReader forProperty(Class<?> type, String property, ReflectorFactory reflectorFactory) {
+    List<String> names = new ArrayList<>();
+    List<Invoker> invokers = new ArrayList<>();
+    Class<?> currentType = type;
+    PropertyTokenizer prop = new PropertyTokenizer(property);
+    while (true) {
+      if (prop.getIndex() != null || !isBeanType(currentType)) {
+        return new PropertyReader(null, null);
+      }
+      Reflector reflector = reflectorFactory.findForClass(currentType);
+      if (!reflector.hasGetter(prop.getName())) {
+        return new PropertyReader(null, null);
+      }
+      names.add(prop.getName());
+      invokers.add(reflector.getGetInvoker(prop.getName()));
+      if (!prop.hasNext()) {
+        break;
+      }
+      currentType = reflector.getGetterType(prop.getName());
+      prop = prop.next();
+    }
+    return new PropertyReader(names.toArray(new String[0]), invokers.toArray(new Invoker[0]));
+  }
+
+  private static boolean isBeanType(Class<?> type) {
+    return !type.isArray()
+        && !type.isPrimitive()
+        && !Map.class.isAssignableFrom(type)
+        && !Collection.class.isAssignableFrom(type)
+        && !ObjectWrapper.class.isAssignableFrom(type);
+  }
+
+  public boolean isReadable() {
+    return invokers != null;
+  }
+
+  public Object getValue(Object object) {
+    Object value = object;
+    for (int i = 0; i < invokers.length && value != null; i++) {
+      value = invoke(i, value);
+    }
+    return value;
+  }
+
+  private Object invoke(int i, Object target) {
+    try {
+      try {
+        return invokers[i].invoke(target, NO_ARGUMENTS);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new ReflectionException("Could not get property '" + names[i] + "' from " + target.getClass() + ".  Cause: " + t.toString(), t);
+    }
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -28,6 +28,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 import org.apache.ibatis.reflection.ReflectionException;
@@ -40,6 +42,9 @@ public class DefaultObjectFactory implements ObjectFactory, Serializable {
 
   private static final long serialVersionUID = -8855120656740914948L;
 
+  // constructors looked up so far, keyed by the class followed by the constructor argument types
+  private transient ConcurrentMap<List<Class<?>>, Constructor<?>> constructorCache = new ConcurrentHashMap<>();
+
   @Override
   public <T> T create(Class<T> type) {
     return create(type, null, null);
@@ -57,7 +62,7 @@ public class DefaultObjectFactory implements ObjectFactory, Serializable {
     try {
       Constructor<T> constructor;
       if (constructorArgTypes == null || constructorArgs == null) {
-        constructor = type.getDeclaredConstructor();
+        constructor = getConstructor(type, Collections.emptyList());
         try {
           return constructor.newInstance();
         } catch (IllegalAccessException e) {
@@ -69,7 +74,7 @@ public class DefaultObjectFactory implements ObjectFactory, Serializable {
           }
         }
       }
-      constructor = type.getDeclaredConstructor(constructorArgTypes.toArray(new Class[constructorArgTypes.size()]));
+      constructor = getConstructor(type, constructorArgTypes);
       try {
         return constructor.newInstance(constructorArgs.toArray(new Object[constructorArgs.size()]));
       } catch (IllegalAccessException e) {
@@ -89,6 +94,23 @@ public class DefaultObjectFactory implements ObjectFactory, Serializable {
     }
   }
 
+  @SuppressWarnings("unchecked")
+  private <T> Constructor<T> getConstructor(Class<T> type, List<Class<?>> constructorArgTypes) throws NoSuchMethodException {
+    if (constructorCache == null) {
+      // deserialized factory
+      constructorCache = new ConcurrentHashMap<>();
+    }
+    final List<Class<?>> key = new ArrayList<>(constructorArgTypes.size() + 1);
+    key.add(type);
+    key.addAll(constructorArgTypes);
+    Constructor<?> constructor = constructorCache.get(key);
+    if (constructor == null) {
+      constructor = type.getDeclaredConstructor(constructorArgTypes.toArray(new Class[constructorArgTypes.size()]));
+      constructorCache.putIfAbsent(key, constructor);
+    }
+    return (Constructor<T>) constructor;
+  }
+
   protected Class<?> resolveInterface(Class<?> type) {
     Class<?> classToCreate;
     if (type == List.class || type == Collection.class || type == Iterable.class) {
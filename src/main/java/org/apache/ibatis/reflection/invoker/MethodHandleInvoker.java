@@ -0,0 +1,207 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.apache.ibatis.reflection.Reflector;
+
+/**
+ * An {@link Invoker} that calls a getter, a setter or accesses a field through a {@link MethodHandle}
+ * instead of core reflection, avoiding the access checks and argument array handling of
+ * {@link Method#invoke(Object, Object...)} on every call.
+ * <p>
+ * Arguments a method handle cannot convert the way reflection does (e.g. widening an {@code Integer}
+ * to a {@code long} setter) are passed to the equivalent reflective invoker, so both behave the same.
+ *
+ * @since 3.5.3
+ */
+public class MethodHandleInvoker implements Invoker {
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+  private final MethodHandle handle;
+  private final boolean setter;
+  private final Class<?> declaringClass;
+  private final Class<?> type;
+  private final Class<?> boxedType;
+  private final Invoker reflectiveInvoker;
+
+  private MethodHandleInvoker(MethodHandle handle, boolean setter, Class<?> declaringClass, Class<?> type, Invoker reflectiveInvoker) {
+    this.handle = handle.asType(setter ? SETTER_TYPE : GETTER_TYPE);
+    this.setter = setter;
+    this.declaringClass = declaringClass;
+    this.type = type;
+    this.boxedType = MethodType.methodType(type).wrap().returnType();
+    this.reflectiveInvoker = reflectiveInvoker;
+  }
+
+  /**
+   * Creates an invoker for a getter (no parameter) or a setter (one parameter) method.
+   *
+   * @return a method handle based invoker, or a {@link MethodInvoker} if the method cannot be accessed through a method handle
+   */
+  public static Invoker forMethod(Method method) {
+    final MethodInvoker reflectiveInvoker = new MethodInvoker(method);
+    if (Modifier.isStatic(method.getModifiers())) {
+      return reflectiveInvoker;
+    }
+    try {
+      return new MethodHandleInvoker(unreflect(method), method.getParameterTypes().length == 1, method.getDeclaringClass(),
+          reflectiveInvoker.getType(), reflectiveInvoker);
+    } catch (IllegalAccessException e) {
+      return reflectiveInvoker;
+    }
+  }
+
+  /**
+   * Creates an invoker reading a field.
+   *
+   * @return a method handle based invoker, or a {@link GetFieldInvoker} if the field cannot be accessed through a method handle
+   */
+  public static Invoker forGetField(Field field) {
+    final GetFieldInvoker reflectiveInvoker = new GetFieldInvoker(field);
+    if (Modifier.isStatic(field.getModifiers())) {
+      return reflectiveInvoker;
+    }
+    try {
+      return new MethodHandleInvoker(unreflectGetter(field), false, field.getDeclaringClass(), field.getType(), reflectiveInvoker);
+    } catch (IllegalAccessException e) {
+      return reflectiveInvoker;
+    }
+  }
+
+  /**
+   * Creates an invoker writing a field.
+   *
+   * @return a method handle based invoker, or a {@link SetFieldInvoker} if the field cannot be accessed through a method handle
+   */
+  public static Invoker forSetField(Field field) {
+    final SetFieldInvoker reflectiveInvoker = new SetFieldInvoker(field);
+    if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+      return reflectiveInvoker;
+    }
+    try {
+      return new MethodHandleInvoker(unreflectSetter(field), true, field.getDeclaringClass(), field.getType(), reflectiveInvoker);
+    } catch (IllegalAccessException e) {
+      return reflectiveInvoker;
+    }
+  }
+
+  /**
+   * Returns a method handle of type {@code (Object, T)void}, with {@code T} the setter type, that calls the setter
+   * method or writes the field behind a setter invoker. It lets callers pass primitive values without boxing them.
+   *
+   * @return the method handle, or null if the invoker is not a setter or its member cannot be accessed through a method handle
+   */
+  public static MethodHandle unboxedSetter(Invoker invoker) {
+    final Invoker setter = invoker instanceof MethodHandleInvoker ? ((MethodHandleInvoker) invoker).reflectiveInvoker : invoker;
+    try {
+      final MethodHandle handle;
+      if (setter instanceof MethodInvoker) {
+        final Method method = ((MethodInvoker) setter).getMethod();
+        if (method.getParameterTypes().length != 1 || Modifier.isStatic(method.getModifiers())) {
+          return null;
+        }
+        handle = unreflect(method);
+      } else if (setter instanceof SetFieldInvoker) {
+        final Field field = ((SetFieldInvoker) setter).getField();
+        if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+          return null;
+        }
+        handle = unreflectSetter(field);
+      } else {
+        return null;
+      }
+      return handle.asType(MethodType.methodType(void.class, Object.class, setter.getType()));
+    } catch (IllegalAccessException e) {
+      return null;
+    }
+  }
+
+  private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+    try {
+      return LOOKUP.unreflect(method);
+    } catch (IllegalAccessException e) {
+      if (Reflector.canControlMemberAccessible()) {
+        method.setAccessible(true);
+        return LOOKUP.unreflect(method);
+      } else {
+        throw e;
+      }
+    }
+  }
+
+  private static MethodHandle unreflectGetter(Field field) throws IllegalAccessException {
+    try {
+      return LOOKUP.unreflectGetter(field);
+    } catch (IllegalAccessException e) {
+      if (Reflector.canControlMemberAccessible()) {
+        field.setAccessible(true);
+        return LOOKUP.unreflectGetter(field);
+      } else {
+        throw e;
+      }
+    }
+  }
+
+  private static MethodHandle unreflectSetter(Field field) throws IllegalAccessException {
+    try {
+      return LOOKUP.unreflectSetter(field);
+    } catch (IllegalAccessException e) {
+      if (Reflector.canControlMemberAccessible()) {
+        field.setAccessible(true);
+        return LOOKUP.unreflectSetter(field);
+      } else {
+        throw e;
+      }
+    }
+  }
+
+  @Override
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+    if (!declaringClass.isInstance(target) || (setter && !isAssignable(args[0]))) {
+      // let reflection widen the argument or report the mismatch
+      return reflectiveInvoker.invoke(target, args);
+    }
+    try {
+      if (setter) {
+        handle.invokeExact(target, args[0]);
+        return null;
+      }
+      return (Object) handle.invokeExact(target);
+    } catch (Throwable t) {
+      throw new InvocationTargetException(t);
+    }
+  }
+
+  private boolean isAssignable(Object value) {
+    return value == null ? !type.isPrimitive() : boxedType.isInstance(value);
+  }
+
+  @Override
+  public Class<?> getType() {
+    return type;
+  }
+}
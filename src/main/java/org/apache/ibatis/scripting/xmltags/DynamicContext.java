@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,15 +15,20 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.StringJoiner;
 
 import ognl.OgnlContext;
 import ognl.OgnlRuntime;
 import ognl.PropertyAccessor;
 
+import org.apache.ibatis.reflection.ExceptionUtil;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -38,22 +43,37 @@ public class DynamicContext {
     OgnlRuntime.setPropertyAccessor(ContextMap.class, new ContextAccessor());
   }
 
+  private static final int DEFAULT_SQL_CAPACITY = 256;
+
   private final ContextMap bindings;
-  private final StringJoiner sqlBuilder = new StringJoiner(" ");
+  private final StringBuilder sqlBuilder;
+  private boolean sqlAppended;
   private int uniqueNumber = 0;
 
   public DynamicContext(Configuration configuration, Object parameterObject) {
+    this(configuration, parameterObject, DEFAULT_SQL_CAPACITY);
+  }
+
+  DynamicContext(Configuration configuration, Object parameterObject, int sqlCapacity) {
+    sqlBuilder = new StringBuilder(sqlCapacity);
     if (parameterObject != null && !(parameterObject instanceof Map)) {
-      MetaObject metaObject = configuration.newMetaObject(parameterObject);
       boolean existsTypeHandler = configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass());
-      bindings = new ContextMap(metaObject, existsTypeHandler);
+      bindings = new ContextMap(configuration, parameterObject, existsTypeHandler);
     } else {
-      bindings = new ContextMap(null, false);
+      bindings = new ContextMap(null, null, false);
     }
     bindings.put(PARAMETER_OBJECT_KEY, parameterObject);
     bindings.put(DATABASE_ID_KEY, configuration.getDatabaseId());
   }
 
+  /**
+   * Constructor for contexts that delegate the bindings and the SQL to another context.
+   */
+  DynamicContext() {
+    bindings = null;
+    sqlBuilder = null;
+  }
+
   public Map<String, Object> getBindings() {
     return bindings;
   }
@@ -63,45 +83,118 @@ public class DynamicContext {
   }
 
   public void appendSql(String sql) {
-    sqlBuilder.add(sql);
+    separate();
+    sqlBuilder.append(sql);
   }
 
   public String getSql() {
     return sqlBuilder.toString().trim();
   }
 
+  /**
+   * Starts a fragment that is written straight into the SQL buffer of this context.
+   *
+   * @return the offset of the fragment in {@link #getSqlBuffer()}, or -1 when this context does not support fragments
+   */
+  int beginFragment() {
+    if (getClass() != DynamicContext.class) {
+      return -1;
+    }
+    separate();
+    return sqlBuilder.length();
+  }
+
+  StringBuilder getSqlBuffer() {
+    return sqlBuilder;
+  }
+
+  private void separate() {
+    if (sqlAppended) {
+      sqlBuilder.append(' ');
+    } else {
+      sqlAppended = true;
+    }
+  }
+
   public int getUniqueNumber() {
     return uniqueNumber++;
   }
 
   static class ContextMap extends HashMap<String, Object> {
     private static final long serialVersionUID = 2977601501966151582L;
-    private final MetaObject parameterMetaObject;
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+    private final Configuration configuration;
+    private final Object parameterObject;
+    private final Reflector parameterReflector;
     private final boolean fallbackParameterObject;
+    private MetaObject parameterMetaObject;
 
-    public ContextMap(MetaObject parameterMetaObject, boolean fallbackParameterObject) {
-      this.parameterMetaObject = parameterMetaObject;
+    public ContextMap(Configuration configuration, Object parameterObject, boolean fallbackParameterObject) {
+      this.configuration = configuration;
+      this.parameterObject = parameterObject;
+      this.parameterReflector = isBean(configuration, parameterObject)
+          ? configuration.getReflectorFactory().findForClass(parameterObject.getClass()) : null;
       this.fallbackParameterObject = fallbackParameterObject;
     }
 
     @Override
     public Object get(Object key) {
       String strKey = (String) key;
-      if (super.containsKey(strKey)) {
-        return super.get(strKey);
+      Object value = super.get(strKey);
+      if (value != null || super.containsKey(strKey)) {
+        return value;
       }
 
-      if (parameterMetaObject == null) {
+      if (parameterObject == null) {
         return null;
       }
 
-      if (fallbackParameterObject && !parameterMetaObject.hasGetter(strKey)) {
-        return parameterMetaObject.getOriginalObject();
+      if (parameterReflector != null && strKey.indexOf('.') < 0 && strKey.indexOf('[') < 0) {
+        // plain property of a bean: call the getter without a MetaObject
+        if (parameterReflector.hasGetter(strKey)) {
+          return getProperty(strKey);
+        } else if (fallbackParameterObject) {
+          return parameterObject;
+        }
+      }
+
+      MetaObject metaObject = getParameterMetaObject();
+      if (fallbackParameterObject && !metaObject.hasGetter(strKey)) {
+        return metaObject.getOriginalObject();
       } else {
         // issue #61 do not modify the context when reading
-        return parameterMetaObject.getValue(strKey);
+        return metaObject.getValue(strKey);
+      }
+    }
+
+    private Object getProperty(String name) {
+      try {
+        try {
+          return parameterReflector.getGetInvoker(name).invoke(parameterObject, NO_ARGUMENTS);
+        } catch (Throwable t) {
+          throw ExceptionUtil.unwrapThrowable(t);
+        }
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new ReflectionException("Could not get property '" + name + "' from " + parameterObject.getClass() + ".  Cause: " + t.toString(), t);
       }
     }
+
+    private MetaObject getParameterMetaObject() {
+      if (parameterMetaObject == null) {
+        parameterMetaObject = configuration.newMetaObject(parameterObject);
+      }
+      return parameterMetaObject;
+    }
+
+    private static boolean isBean(Configuration configuration, Object object) {
+      return object != null
+          && configuration.getObjectWrapperFactory().getClass() == DefaultObjectWrapperFactory.class
+          && !(object instanceof Collection)
+          && !(object instanceof ObjectWrapper)
+          && !object.getClass().isArray();
+    }
   }
 
   static class ContextAccessor implements PropertyAccessor {
@@ -111,7 +204,7 @@ public class DynamicContext {
       Map map = (Map) target;
 
       Object result = map.get(name);
-      if (map.containsKey(name) || result != null) {
+      if (result != null || map.containsKey(name)) {
         return result;
       }
 
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,7 +15,11 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.apache.ibatis.builder.SqlSourceBuilder;
+import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.SqlSource;
 import org.apache.ibatis.session.Configuration;
@@ -25,24 +29,48 @@ import org.apache.ibatis.session.Configuration;
  */
 public class DynamicSqlSource implements SqlSource {
 
+  private static final int MAX_CACHED_SHAPES = 256;
+
   private final Configuration configuration;
   private final SqlNode rootSqlNode;
+  private final boolean shapeSupported;
+  private final Map<CacheKey, SqlSource> shapeCache = new ConcurrentHashMap<>();
+  private int sqlCapacity = 256;
 
   public DynamicSqlSource(Configuration configuration, SqlNode rootSqlNode) {
     this.configuration = configuration;
     this.rootSqlNode = rootSqlNode;
+    this.shapeSupported = SqlShape.isSupported(rootSqlNode);
   }
 
   @Override
   public BoundSql getBoundSql(Object parameterObject) {
-    DynamicContext context = new DynamicContext(configuration, parameterObject);
-    rootSqlNode.apply(context);
-    SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
+    DynamicContext context = new DynamicContext(configuration, parameterObject, sqlCapacity);
     Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
-    SqlSource sqlSource = sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());
+    SqlSource sqlSource;
+    if (shapeSupported && configuration.isDynamicSqlShapeCacheEnabled()) {
+      CacheKey shape = SqlShape.resolve(rootSqlNode, context, parameterType);
+      sqlSource = shapeCache.get(shape);
+      if (sqlSource == null) {
+        sqlSource = buildSqlSource(context, parameterType);
+        if (shapeCache.size() < MAX_CACHED_SHAPES) {
+          shapeCache.putIfAbsent(shape, sqlSource);
+        }
+      }
+    } else {
+      sqlSource = buildSqlSource(context, parameterType);
+    }
     BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
     context.getBindings().forEach(boundSql::setAdditionalParameter);
     return boundSql;
   }
 
+  private SqlSource buildSqlSource(DynamicContext context, Class<?> parameterType) {
+    rootSqlNode.apply(context);
+    // size the buffer of the next execution after the largest SQL rendered so far
+    sqlCapacity = Math.max(sqlCapacity, context.getSqlBuffer().length());
+    SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
+    return sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());
+  }
+
 }
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2017 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -31,11 +31,19 @@ public class IfSqlNode implements SqlNode {
 
   @Override
   public boolean apply(DynamicContext context) {
-    if (evaluator.evaluateBoolean(test, context.getBindings())) {
+    if (evaluate(context)) {
       contents.apply(context);
       return true;
     }
     return false;
   }
 
+  boolean evaluate(DynamicContext context) {
+    return evaluator.evaluateBoolean(test, context.getBindings());
+  }
+
+  SqlNode getContents() {
+    return contents;
+  }
+
 }
@@ -0,0 +1,107 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.List;
+
+import org.apache.ibatis.cache.CacheKey;
+
+/**
+ * Resolves the shape of a dynamic statement for a given parameter object.
+ * <p>
+ * A statement made only of static text and {@code <if>}, {@code <choose>}, {@code <trim>}, {@code <where>} or
+ * {@code <set>} elements always renders the same SQL and parameter mappings for the same parameter type and the same
+ * outcome of the conditions it evaluates. That combination is the shape of the statement.
+ * Statements using {@code ${}}, {@code <foreach>}, {@code <bind>} or custom nodes have no shape.
+ */
+final class SqlShape {
+
+  private SqlShape() {
+    // Prevent Instantiation of Static Class
+  }
+
+  static boolean isSupported(SqlNode node) {
+    Class<?> nodeType = node.getClass();
+    if (nodeType == StaticTextSqlNode.class) {
+      return true;
+    } else if (nodeType == TextSqlNode.class) {
+      return !((TextSqlNode) node).isDynamic();
+    } else if (nodeType == MixedSqlNode.class) {
+      return isSupported(((MixedSqlNode) node).getContents());
+    } else if (nodeType == IfSqlNode.class) {
+      return isSupported(((IfSqlNode) node).getContents());
+    } else if (nodeType == TrimSqlNode.class || nodeType == WhereSqlNode.class || nodeType == SetSqlNode.class) {
+      return isSupported(((TrimSqlNode) node).getContents());
+    } else if (nodeType == ChooseSqlNode.class) {
+      ChooseSqlNode chooseSqlNode = (ChooseSqlNode) node;
+      for (SqlNode ifSqlNode : chooseSqlNode.getIfSqlNodes()) {
+        if (ifSqlNode.getClass() != IfSqlNode.class || !isSupported(ifSqlNode)) {
+          return false;
+        }
+      }
+      return chooseSqlNode.getDefaultSqlNode() == null || isSupported(chooseSqlNode.getDefaultSqlNode());
+    }
+    return false;
+  }
+
+  static CacheKey resolve(SqlNode rootSqlNode, DynamicContext context, Class<?> parameterType) {
+    CacheKey shape = new CacheKey();
+    shape.update(parameterType);
+    update(shape, rootSqlNode, context);
+    return shape;
+  }
+
+  private static boolean isSupported(List<SqlNode> nodes) {
+    for (SqlNode node : nodes) {
+      if (!isSupported(node)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void update(CacheKey shape, SqlNode node, DynamicContext context) {
+    if (node instanceof MixedSqlNode) {
+      for (SqlNode child : ((MixedSqlNode) node).getContents()) {
+        update(shape, child, context);
+      }
+    } else if (node instanceof IfSqlNode) {
+      IfSqlNode ifSqlNode = (IfSqlNode) node;
+      boolean matched = ifSqlNode.evaluate(context);
+      shape.update(matched);
+      if (matched) {
+        update(shape, ifSqlNode.getContents(), context);
+      }
+    } else if (node instanceof TrimSqlNode) {
+      update(shape, ((TrimSqlNode) node).getContents(), context);
+    } else if (node instanceof ChooseSqlNode) {
+      ChooseSqlNode chooseSqlNode = (ChooseSqlNode) node;
+      for (SqlNode sqlNode : chooseSqlNode.getIfSqlNodes()) {
+        IfSqlNode ifSqlNode = (IfSqlNode) sqlNode;
+        boolean matched = ifSqlNode.evaluate(context);
+        shape.update(matched);
+        if (matched) {
+          update(shape, ifSqlNode.getContents(), context);
+          return;
+        }
+      }
+      if (chooseSqlNode.getDefaultSqlNode() != null) {
+        update(shape, chooseSqlNode.getDefaultSqlNode(), context);
+      }
+    }
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,10 +15,11 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Pattern;
 
 import org.apache.ibatis.parsing.GenericTokenParser;
-import org.apache.ibatis.parsing.TokenHandler;
 import org.apache.ibatis.scripting.ScriptingException;
 import org.apache.ibatis.type.SimpleTypeRegistry;
 
@@ -28,6 +29,8 @@ import org.apache.ibatis.type.SimpleTypeRegistry;
 public class TextSqlNode implements SqlNode {
   private final String text;
   private final Pattern injectionFilter;
+  private final String[] literals;
+  private final String[] expressions;
 
   public TextSqlNode(String text) {
     this(text, null);
@@ -36,74 +39,77 @@ public class TextSqlNode implements SqlNode {
   public TextSqlNode(String text, Pattern injectionFilter) {
     this.text = text;
     this.injectionFilter = injectionFilter;
+    // split the text once into literals and ${} expressions: literals[0] expressions[0] literals[1] ...
+    List<String> tokens = new ArrayList<>();
+    char marker = findMarker(text);
+    String parsed = new GenericTokenParser("${", "}", content -> {
+      tokens.add(content);
+      return String.valueOf(marker);
+    }).parse(text);
+    this.expressions = tokens.toArray(new String[0]);
+    this.literals = new String[expressions.length + 1];
+    int offset = 0;
+    for (int i = 0; i < expressions.length; i++) {
+      int end = parsed.indexOf(marker, offset);
+      literals[i] = parsed.substring(offset, end);
+      offset = end + 1;
+    }
+    literals[expressions.length] = parsed.substring(offset);
   }
 
   public boolean isDynamic() {
-    DynamicCheckerTokenParser checker = new DynamicCheckerTokenParser();
-    GenericTokenParser parser = createParser(checker);
-    parser.parse(text);
-    return checker.isDynamic();
+    return expressions.length > 0;
   }
 
   @Override
   public boolean apply(DynamicContext context) {
-    GenericTokenParser parser = createParser(new BindingTokenParser(context, injectionFilter));
-    context.appendSql(parser.parse(text));
-    return true;
-  }
-
-  private GenericTokenParser createParser(TokenHandler handler) {
-    return new GenericTokenParser("${", "}", handler);
-  }
-
-  private static class BindingTokenParser implements TokenHandler {
-
-    private DynamicContext context;
-    private Pattern injectionFilter;
-
-    public BindingTokenParser(DynamicContext context, Pattern injectionFilter) {
-      this.context = context;
-      this.injectionFilter = injectionFilter;
+    if (expressions.length == 0) {
+      context.appendSql(literals[0]);
+      return true;
     }
-
-    @Override
-    public String handleToken(String content) {
-      Object parameter = context.getBindings().get("_parameter");
-      if (parameter == null) {
-        context.getBindings().put("value", null);
-      } else if (SimpleTypeRegistry.isSimpleType(parameter.getClass())) {
-        context.getBindings().put("value", parameter);
-      }
-      Object value = OgnlCache.getValue(content, context.getBindings());
-      String srtValue = value == null ? "" : String.valueOf(value); // issue #274 return "" instead of "null"
-      checkInjection(srtValue);
-      return srtValue;
+    bindValue(context);
+    StringBuilder sql = new StringBuilder(text.length());
+    for (int i = 0; i < expressions.length; i++) {
+      sql.append(literals[i]).append(evaluate(expressions[i], context));
     }
+    sql.append(literals[expressions.length]);
+    context.appendSql(sql.toString());
+    return true;
+  }
 
-    private void checkInjection(String value) {
-      if (injectionFilter != null && !injectionFilter.matcher(value).matches()) {
-        throw new ScriptingException("Invalid input. Please conform to regex" + injectionFilter.pattern());
-      }
+  private void bindValue(DynamicContext context) {
+    Object parameter = context.getBindings().get("_parameter");
+    if (parameter == null) {
+      context.getBindings().put("value", null);
+    } else if (SimpleTypeRegistry.isSimpleType(parameter.getClass())) {
+      context.getBindings().put("value", parameter);
     }
   }
 
-  private static class DynamicCheckerTokenParser implements TokenHandler {
-
-    private boolean isDynamic;
-
-    public DynamicCheckerTokenParser() {
-      // Prevent Synthetic Access
-    }
+  private String evaluate(String expression, DynamicContext context) {
+    Object value = OgnlCache.getValue(expression, context.getBindings());
+    String srtValue = value == null ? "" : String.valueOf(value); // issue #274 return "" instead of "null"
+    checkInjection(srtValue);
+    return srtValue;
+  }
 
-    public boolean isDynamic() {
-      return isDynamic;
+  private void checkInjection(String value) {
+    if (injectionFilter != null && !injectionFilter.matcher(value).matches()) {
+      throw new ScriptingException("Invalid input. Please conform to regex" + injectionFilter.pattern());
     }
+  }
 
-    @Override
-    public String handleToken(String content) {
-      this.isDynamic = true;
-      return null;
+  /**
+   * Finds a private use character that does not appear in the text, used to mark where the expressions were.
+   */
+  private static char findMarker(String text) {
+    char marker = '\uE000';
+    if (text != null) {
+      while (text.indexOf(marker) >= 0) {
+        marker++;
+      }
     }
+    return marker;
   }
 
 }
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2018 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -57,6 +57,10 @@ public class TrimSqlNode implements SqlNode {
     return result;
   }
 
+  SqlNode getContents() {
+    return contents;
+  }
+
   private static List<String> parseOverrides(String overrides) {
     if (overrides != null) {
       final StringTokenizer parser = new StringTokenizer(overrides, "|", false);
@@ -70,27 +74,30 @@ public class TrimSqlNode implements SqlNode {
   }
 
   private class FilteredDynamicContext extends DynamicContext {
-    private DynamicContext delegate;
-    private boolean prefixApplied;
-    private boolean suffixApplied;
-    private StringBuilder sqlBuffer;
+    private final DynamicContext delegate;
+    private final StringBuilder sqlBuffer;
+    private final int start;
+    private final boolean inPlace;
 
     public FilteredDynamicContext(DynamicContext delegate) {
-      super(configuration, null);
       this.delegate = delegate;
-      this.prefixApplied = false;
-      this.suffixApplied = false;
-      this.sqlBuffer = new StringBuilder();
+      int fragmentStart = delegate.beginFragment();
+      this.inPlace = fragmentStart >= 0;
+      this.sqlBuffer = inPlace ? delegate.getSqlBuffer() : new StringBuilder();
+      this.start = inPlace ? fragmentStart : 0;
     }
 
     public void applyAll() {
-      sqlBuffer = new StringBuilder(sqlBuffer.toString().trim());
-      String trimmedUppercaseSql = sqlBuffer.toString().toUpperCase(Locale.ENGLISH);
-      if (trimmedUppercaseSql.length() > 0) {
-        applyPrefix(sqlBuffer, trimmedUppercaseSql);
-        applySuffix(sqlBuffer, trimmedUppercaseSql);
+      trimFragment();
+      if (sqlBuffer.length() > start) {
+        String prefixToRemove = findPrefixToRemove();
+        String suffixToRemove = findSuffixToRemove();
+        applyPrefix(prefixToRemove);
+        applySuffix(suffixToRemove);
+      }
+      if (!inPlace) {
+        delegate.appendSql(sqlBuffer.toString());
       }
-      delegate.appendSql(sqlBuffer.toString());
     }
 
     @Override
@@ -118,42 +125,83 @@ public class TrimSqlNode implements SqlNode {
       return delegate.getSql();
     }
 
-    private void applyPrefix(StringBuilder sql, String trimmedUppercaseSql) {
-      if (!prefixApplied) {
-        prefixApplied = true;
-        if (prefixesToOverride != null) {
-          for (String toRemove : prefixesToOverride) {
-            if (trimmedUppercaseSql.startsWith(toRemove)) {
-              sql.delete(0, toRemove.trim().length());
-              break;
-            }
+    @Override
+    int beginFragment() {
+      return inPlace ? sqlBuffer.length() : -1;
+    }
+
+    @Override
+    StringBuilder getSqlBuffer() {
+      return sqlBuffer;
+    }
+
+    private void trimFragment() {
+      int end = sqlBuffer.length();
+      while (end > start && sqlBuffer.charAt(end - 1) <= ' ') {
+        end--;
+      }
+      sqlBuffer.setLength(end);
+      int begin = start;
+      while (begin < end && sqlBuffer.charAt(begin) <= ' ') {
+        begin++;
+      }
+      sqlBuffer.delete(start, begin);
+    }
+
+    private String findPrefixToRemove() {
+      if (prefixesToOverride != null) {
+        for (String toRemove : prefixesToOverride) {
+          if (regionMatches(start, toRemove)) {
+            return toRemove;
           }
         }
-        if (prefix != null) {
-          sql.insert(0, " ");
-          sql.insert(0, prefix);
-        }
       }
+      return null;
     }
 
-    private void applySuffix(StringBuilder sql, String trimmedUppercaseSql) {
-      if (!suffixApplied) {
-        suffixApplied = true;
-        if (suffixesToOverride != null) {
-          for (String toRemove : suffixesToOverride) {
-            if (trimmedUppercaseSql.endsWith(toRemove) || trimmedUppercaseSql.endsWith(toRemove.trim())) {
-              int start = sql.length() - toRemove.trim().length();
-              int end = sql.length();
-              sql.delete(start, end);
-              break;
-            }
+    private String findSuffixToRemove() {
+      if (suffixesToOverride != null) {
+        for (String toRemove : suffixesToOverride) {
+          String trimmed = toRemove.trim();
+          int offset = sqlBuffer.length() - trimmed.length();
+          if (offset >= start && regionMatches(offset, trimmed)) {
+            return toRemove;
           }
         }
-        if (suffix != null) {
-          sql.append(" ");
-          sql.append(suffix);
+      }
+      return null;
+    }
+
+    private boolean regionMatches(int offset, String uppercaseToken) {
+      if (sqlBuffer.length() - offset < uppercaseToken.length()) {
+        return false;
+      }
+      for (int i = 0; i < uppercaseToken.length(); i++) {
+        if (Character.toUpperCase(sqlBuffer.charAt(offset + i)) != uppercaseToken.charAt(i)) {
+          return false;
         }
       }
+      return true;
+    }
+
+    private void applyPrefix(String prefixToRemove) {
+      if (prefixToRemove != null) {
+        sqlBuffer.delete(start, start + prefixToRemove.trim().length());
+      }
+      if (prefix != null) {
+        sqlBuffer.insert(start, ' ');
+        sqlBuffer.insert(start, prefix);
+      }
+    }
+
+    private void applySuffix(String suffixToRemove) {
+      if (suffixToRemove != null) {
+        sqlBuffer.setLength(Math.max(start, sqlBuffer.length() - suffixToRemove.trim().length()));
+      }
+      if (suffix != null) {
+        sqlBuffer.append(' ');
+        sqlBuffer.append(suffix);
+      }
     }
 
   }
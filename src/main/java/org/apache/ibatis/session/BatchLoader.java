@@ -0,0 +1,65 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Coalesces lookups of single rows by key into executions of a statement that selects the rows of many keys.
+ * <p>
+ * Keys requested by {@link #load(Object)} are queued until {@link #dispatch()} is called or
+ * {@code nestedQueryBatchSize} keys are queued. A loader of the default session is also dispatched before the session
+ * executes another statement, commits, rolls back or flushes, and the futures of keys still queued when the session
+ * is closed complete exceptionally. A future, or a stage depending on it such as {@code thenApply} or
+ * {@code CompletableFuture.allOf}, only completes once its key is dispatched, so it must not be waited for before. The
+ * statement receives the queued keys as a list named {@code list} (or {@code collection}) and every future completes
+ * with the row whose key property equals its key, or with null if there is none. A key is looked up once per session:
+ * loading it again returns the same future until the local cache of the session is cleared by an update, a commit, a
+ * rollback or {@link SqlSession#clearCache()}.
+ * <p>
+ * Like the session it belongs to, a batch loader is not thread safe.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the rows
+ * @since 3.5.3
+ */
+public interface BatchLoader<K, V> {
+
+  /**
+   * Queues a key, unless it is already queued or loaded.
+   *
+   * @param key the key of the row
+   * @return a future of the row with the key, completed when the key is dispatched
+   */
+  CompletableFuture<V> load(K key);
+
+  /**
+   * Executes the statement for the queued keys and completes their futures. When the statement fails, the futures
+   * of its keys complete exceptionally.
+   */
+  void dispatch();
+
+  /**
+   * @return the number of keys waiting for {@link #dispatch()}
+   */
+  int getQueuedCount();
+
+  /**
+   * Forgets the rows loaded so far, so they are selected again when their keys are loaded.
+   */
+  void clear();
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -47,6 +47,7 @@ import org.apache.ibatis.executor.CachingExecutor;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ReuseExecutor;
 import org.apache.ibatis.executor.SimpleExecutor;
+import org.apache.ibatis.executor.StatementCache;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.loader.ProxyFactory;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
@@ -114,6 +115,19 @@ public class Configuration {
   protected boolean callSettersOnNulls;
   protected boolean useActualParamName = true;
   protected boolean returnInstanceForEmptyRow;
+  protected boolean dynamicSqlShapeCacheEnabled;
+  protected boolean compiledRowMappersEnabled;
+  protected boolean resultSetLayoutCacheEnabled;
+  protected boolean compactMapRowsEnabled;
+  protected int nestedQueryBatchSize = 500;
+  protected int cursorPrefetchSize;
+  protected int statementCacheSize;
+  protected StatementCache statementCache;
+  protected int batchFlushSize;
+  protected int batchFlushBytes;
+  protected boolean batchGroupingEnabled;
+  protected int multiRowInsertSize;
+  protected int multiRowInsertMaxParameters;
 
   protected String logPrefix;
   protected Class<? extends Log> logImpl;
@@ -136,6 +150,7 @@ public class Configuration {
 
   protected boolean lazyLoadingEnabled = false;
   protected ProxyFactory proxyFactory = new JavassistProxyFactory(); // #224 Using internal Javassist instead of OGNL
+  protected java.util.concurrent.Executor asyncExecutor;
 
   protected String databaseId;
   /**
@@ -269,6 +284,189 @@ public class Configuration {
     this.returnInstanceForEmptyRow = returnEmptyInstance;
   }
 
+  /**
+   * @since 3.5.3
+   */
+  public boolean isDynamicSqlShapeCacheEnabled() {
+    return dynamicSqlShapeCacheEnabled;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public void setDynamicSqlShapeCacheEnabled(boolean dynamicSqlShapeCacheEnabled) {
+    this.dynamicSqlShapeCacheEnabled = dynamicSqlShapeCacheEnabled;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public boolean isCompiledRowMappersEnabled() {
+    return compiledRowMappersEnabled;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public void setCompiledRowMappersEnabled(boolean compiledRowMappersEnabled) {
+    this.compiledRowMappersEnabled = compiledRowMappersEnabled;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public boolean isResultSetLayoutCacheEnabled() {
+    return resultSetLayoutCacheEnabled;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public void setResultSetLayoutCacheEnabled(boolean resultSetLayoutCacheEnabled) {
+    this.resultSetLayoutCacheEnabled = resultSetLayoutCacheEnabled;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public boolean isCompactMapRowsEnabled() {
+    return compactMapRowsEnabled;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public void setCompactMapRowsEnabled(boolean compactMapRowsEnabled) {
+    this.compactMapRowsEnabled = compactMapRowsEnabled;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getNestedQueryBatchSize() {
+    return nestedQueryBatchSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public void setNestedQueryBatchSize(int nestedQueryBatchSize) {
+    this.nestedQueryBatchSize = nestedQueryBatchSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getCursorPrefetchSize() {
+    return cursorPrefetchSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public void setCursorPrefetchSize(int cursorPrefetchSize) {
+    this.cursorPrefetchSize = cursorPrefetchSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getStatementCacheSize() {
+    return statementCacheSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public void setStatementCacheSize(int statementCacheSize) {
+    this.statementCacheSize = statementCacheSize;
+    if (statementCache != null) {
+      statementCache.setMaxSize(statementCacheSize);
+    }
+  }
+
+  /**
+   * Returns the statements shared by the REUSE executors of this configuration.
+   *
+   * @since 3.5.3
+   */
+  public synchronized StatementCache getStatementCache() {
+    if (statementCache == null) {
+      statementCache = new StatementCache(statementCacheSize);
+    }
+    return statementCache;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getBatchFlushSize() {
+    return batchFlushSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public void setBatchFlushSize(int batchFlushSize) {
+    this.batchFlushSize = batchFlushSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getBatchFlushBytes() {
+    return batchFlushBytes;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public void setBatchFlushBytes(int batchFlushBytes) {
+    this.batchFlushBytes = batchFlushBytes;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public boolean isBatchGroupingEnabled() {
+    return batchGroupingEnabled;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public void setBatchGroupingEnabled(boolean batchGroupingEnabled) {
+    this.batchGroupingEnabled = batchGroupingEnabled;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getMultiRowInsertSize() {
+    return multiRowInsertSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public void setMultiRowInsertSize(int multiRowInsertSize) {
+    this.multiRowInsertSize = multiRowInsertSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getMultiRowInsertMaxParameters() {
+    return multiRowInsertMaxParameters;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public void setMultiRowInsertMaxParameters(int multiRowInsertMaxParameters) {
+    this.multiRowInsertMaxParameters = multiRowInsertMaxParameters;
+  }
+
   public String getDatabaseId() {
     return databaseId;
   }
@@ -366,6 +564,30 @@ public class Configuration {
     this.proxyFactory = proxyFactory;
   }
 
+  /**
+   * @since 3.5.3
+   */
+  public java.util.concurrent.Executor getAsyncExecutor() {
+    return asyncExecutor;
+  }
+
+  /**
+   * Sets the executor that runs mapper methods returning a {@code CompletableFuture} and the producers of prefetching
+   * cursors. When it is not set, they run on virtual threads if the JVM supports them, or else on a shared pool of
+   * daemon threads.
+   * <p>
+   * The executor is expected to run the tasks on other threads than the caller. A mapper method run on the calling
+   * thread (e.g. by a direct executor or a {@code CallerRunsPolicy}) completes its future before returning it, and a
+   * prefetching cursor whose producer is run on the consuming thread starts the producer on a thread of its own
+   * instead. A task queued behind the calling thread itself, such as on a single-threaded executor used by its own
+   * worker, never runs and leaves the caller waiting.
+   *
+   * @since 3.5.3
+   */
+  public void setAsyncExecutor(java.util.concurrent.Executor asyncExecutor) {
+    this.asyncExecutor = asyncExecutor;
+  }
+
   public boolean isAggressiveLazyLoading() {
     return aggressiveLazyLoading;
   }
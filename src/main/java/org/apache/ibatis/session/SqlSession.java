@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -22,6 +22,9 @@ import java.util.Map;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.result.ColumnarResult;
+import org.apache.ibatis.executor.result.ColumnarResultHandler;
+import org.apache.ibatis.session.defaults.DefaultBatchLoader;
 
 /**
  * The primary Java interface for working with MyBatis.
@@ -143,6 +146,60 @@ public interface SqlSession extends Closeable {
    */
   <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds);
 
+  /**
+   * Retrieve the rows of a query column by column, reading int, long and double columns
+   * into primitive arrays instead of mapping one object per row.
+   * @param statement Unique identifier matching the statement to use.
+   * @return the columns of the retrieved rows
+   * @since 3.5.3
+   */
+  default ColumnarResult selectColumnar(String statement) {
+    return selectColumnar(statement, null);
+  }
+
+  /**
+   * Retrieve the rows of a query column by column, reading int, long and double columns
+   * into primitive arrays instead of mapping one object per row.
+   * @param statement Unique identifier matching the statement to use.
+   * @param parameter A parameter object to pass to the statement.
+   * @return the columns of the retrieved rows
+   * @since 3.5.3
+   */
+  default ColumnarResult selectColumnar(String statement, Object parameter) {
+    return selectColumnar(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  /**
+   * Retrieve the rows of a query column by column, reading int, long and double columns
+   * into primitive arrays instead of mapping one object per row.
+   * @param statement Unique identifier matching the statement to use.
+   * @param parameter A parameter object to pass to the statement.
+   * @param rowBounds  Bounds to limit object retrieval
+   * @return the columns of the retrieved rows
+   * @since 3.5.3
+   */
+  default ColumnarResult selectColumnar(String statement, Object parameter, RowBounds rowBounds) {
+    final ColumnarResultHandler resultHandler = new ColumnarResultHandler();
+    select(statement, parameter, rowBounds, resultHandler);
+    return resultHandler.getResult();
+  }
+
+  /**
+   * Returns a batch loader that coalesces lookups of single rows by key into executions of a statement taking a list
+   * of keys. The default implementation returns a new loader on every call, which is dispatched explicitly or when
+   * its batch is full. The default session returns the same loader for the same statement and key property and also
+   * dispatches it before executing anything else.
+   * @param <K> the type of the keys
+   * @param <V> the type of the rows
+   * @param statement Unique identifier matching the statement that selects the rows of the keys in {@code list}.
+   * @param keyProperty The property of the rows that holds their key.
+   * @return the batch loader
+   * @since 3.5.3
+   */
+  default <K, V> BatchLoader<K, V> getBatchLoader(String statement, String keyProperty) {
+    return new DefaultBatchLoader<>(this, statement, keyProperty);
+  }
+
   /**
    * Retrieve a single row mapped from the statement key and parameter
    * using a {@code ResultHandler}.
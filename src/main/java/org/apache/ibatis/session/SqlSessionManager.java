@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -27,7 +27,9 @@ import java.util.Properties;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.result.ColumnarResult;
 import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.session.defaults.DefaultBatchLoader;
 
 /**
  * @author Larry Meadors
@@ -196,6 +198,31 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
     return sqlSessionProxy.selectCursor(statement, parameter, rowBounds);
   }
 
+  @Override
+  public ColumnarResult selectColumnar(String statement) {
+    return sqlSessionProxy.selectColumnar(statement);
+  }
+
+  @Override
+  public ColumnarResult selectColumnar(String statement, Object parameter) {
+    return sqlSessionProxy.selectColumnar(statement, parameter);
+  }
+
+  @Override
+  public ColumnarResult selectColumnar(String statement, Object parameter, RowBounds rowBounds) {
+    return sqlSessionProxy.selectColumnar(statement, parameter, rowBounds);
+  }
+
+  @Override
+  public <K, V> BatchLoader<K, V> getBatchLoader(String statement, String keyProperty) {
+    final SqlSession sqlSession = localSqlSession.get();
+    if (sqlSession == null) {
+      // every statement runs in its own session, so there is no session to share the loader with
+      return new DefaultBatchLoader<>(this, statement, keyProperty);
+    }
+    return sqlSession.getBatchLoader(statement, keyProperty);
+  }
+
   @Override
   public <E> List<E> selectList(String statement) {
     return sqlSessionProxy.selectList(statement);
@@ -0,0 +1,142 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.defaults;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.ibatis.exceptions.TooManyResultsException;
+import org.apache.ibatis.executor.loader.BatchResultLoader;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.BatchLoader;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.SqlSession;
+
+/**
+ * The default implementation for {@link BatchLoader}, which selects the rows through a {@link SqlSession}.
+ *
+ * @since 3.5.3
+ */
+public class DefaultBatchLoader<K, V> implements BatchLoader<K, V> {
+
+  private final SqlSession sqlSession;
+  private final String statement;
+  private final String keyProperty;
+
+  private final Map<Object, K> queuedKeys = new LinkedHashMap<>();
+  private final Map<Object, CompletableFuture<V>> loads = new HashMap<>();
+
+  public DefaultBatchLoader(SqlSession sqlSession, String statement, String keyProperty) {
+    this.sqlSession = sqlSession;
+    this.statement = statement;
+    this.keyProperty = keyProperty;
+  }
+
+  @Override
+  public CompletableFuture<V> load(K key) {
+    final Object normalizedKey = BatchResultLoader.normalizeKeyValue(key);
+    CompletableFuture<V> future = loads.get(normalizedKey);
+    if (future == null || future.isCompletedExceptionally()) {
+      future = new CompletableFuture<>();
+      loads.put(normalizedKey, future);
+      queuedKeys.put(normalizedKey, key);
+      if (queuedKeys.size() >= getBatchSize()) {
+        dispatch();
+      }
+    }
+    return future;
+  }
+
+  @Override
+  public void dispatch() {
+    while (!queuedKeys.isEmpty()) {
+      final Map<Object, K> batch = new LinkedHashMap<>();
+      final Iterator<Map.Entry<Object, K>> queued = queuedKeys.entrySet().iterator();
+      final int batchSize = getBatchSize();
+      while (queued.hasNext() && batch.size() < batchSize) {
+        final Map.Entry<Object, K> entry = queued.next();
+        batch.put(entry.getKey(), entry.getValue());
+        queued.remove();
+      }
+      dispatch(batch);
+    }
+    if (sqlSession.getConfiguration().getLocalCacheScope() == LocalCacheScope.STATEMENT) {
+      loads.clear();
+    }
+  }
+
+  private void dispatch(Map<Object, K> batch) {
+    final List<Object> keys = new ArrayList<>(batch.values());
+    final Map<Object, List<V>> rowsByKey = new HashMap<>();
+    try {
+      final Configuration configuration = sqlSession.getConfiguration();
+      for (V row : sqlSession.<V>selectList(statement, keys)) {
+        final MetaObject metaRow = configuration.newMetaObject(row);
+        final Object key = BatchResultLoader.normalizeKeyValue(metaRow.getValue(keyProperty));
+        rowsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+      }
+    } catch (RuntimeException e) {
+      for (Object key : batch.keySet()) {
+        loads.get(key).completeExceptionally(e);
+      }
+      return;
+    }
+    for (Map.Entry<Object, K> entry : batch.entrySet()) {
+      final CompletableFuture<V> future = loads.get(entry.getKey());
+      final List<V> rows = rowsByKey.get(entry.getKey());
+      if (rows == null) {
+        future.complete(null);
+      } else if (rows.size() == 1) {
+        future.complete(rows.get(0));
+      } else {
+        future.completeExceptionally(new TooManyResultsException("Expected one result (or null) to be returned for key '"
+            + entry.getValue() + "' by " + statement + ", but found: " + rows.size()));
+      }
+    }
+  }
+
+  /**
+   * Completes the futures of the queued keys exceptionally, as they will not be dispatched any more.
+   */
+  void cancel(RuntimeException cause) {
+    final List<Object> keys = new ArrayList<>(queuedKeys.keySet());
+    queuedKeys.clear();
+    for (Object key : keys) {
+      loads.remove(key).completeExceptionally(cause);
+    }
+  }
+
+  @Override
+  public int getQueuedCount() {
+    return queuedKeys.size();
+  }
+
+  @Override
+  public void clear() {
+    loads.values().removeIf(CompletableFuture::isDone);
+  }
+
+  private int getBatchSize() {
+    return Math.max(1, sqlSession.getConfiguration().getNestedQueryBatchSize());
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -31,13 +31,16 @@ import org.apache.ibatis.exceptions.TooManyResultsException;
 import org.apache.ibatis.executor.BatchResult;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.result.DefaultMapResultHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.BatchLoader;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
 
 /**
  * The default implementation for {@link SqlSession}.
@@ -49,16 +52,32 @@ public class DefaultSqlSession implements SqlSession {
 
   private final Configuration configuration;
   private final Executor executor;
+  private final SqlSessionFactory sqlSessionFactory;
 
   private final boolean autoCommit;
   private boolean dirty;
   private List<Cursor<?>> cursorList;
-
-  public DefaultSqlSession(Configuration configuration, Executor executor, boolean autoCommit) {
+  private Map<String, DefaultBatchLoader<?, ?>> batchLoaders;
+  private boolean dispatchingBatchLoaders;
+
+  /**
+   * @param configuration the configuration of the statements
+   * @param executor the executor running the statements
+   * @param autoCommit whether the executor commits every statement
+   * @param sqlSessionFactory the factory opening this session, which opens the sessions of the mapper methods returning
+   *          a {@link java.util.concurrent.CompletableFuture}
+   * @since 3.5.3
+   */
+  public DefaultSqlSession(Configuration configuration, Executor executor, boolean autoCommit, SqlSessionFactory sqlSessionFactory) {
     this.configuration = configuration;
     this.executor = executor;
     this.dirty = false;
     this.autoCommit = autoCommit;
+    this.sqlSessionFactory = sqlSessionFactory;
+  }
+
+  public DefaultSqlSession(Configuration configuration, Executor executor, boolean autoCommit) {
+    this(configuration, executor, autoCommit, null);
   }
 
   public DefaultSqlSession(Configuration configuration, Executor executor) {
@@ -119,6 +138,7 @@ public class DefaultSqlSession implements SqlSession {
   @Override
   public <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds) {
     try {
+      dispatchBatchLoaders();
       MappedStatement ms = configuration.getMappedStatement(statement);
       Cursor<T> cursor = executor.queryCursor(ms, wrapCollection(parameter), rowBounds);
       registerCursor(cursor);
@@ -143,6 +163,7 @@ public class DefaultSqlSession implements SqlSession {
   @Override
   public <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds) {
     try {
+      dispatchBatchLoaders();
       MappedStatement ms = configuration.getMappedStatement(statement);
       return executor.query(ms, wrapCollection(parameter), rowBounds, Executor.NO_RESULT_HANDLER);
     } catch (Exception e) {
@@ -152,6 +173,16 @@ public class DefaultSqlSession implements SqlSession {
     }
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public <K, V> BatchLoader<K, V> getBatchLoader(String statement, String keyProperty) {
+    if (batchLoaders == null) {
+      batchLoaders = new HashMap<>();
+    }
+    return (BatchLoader<K, V>) batchLoaders.computeIfAbsent(statement + ":" + keyProperty,
+        k -> new DefaultBatchLoader<>(this, statement, keyProperty));
+  }
+
   @Override
   public void select(String statement, Object parameter, ResultHandler handler) {
     select(statement, parameter, RowBounds.DEFAULT, handler);
@@ -165,6 +196,7 @@ public class DefaultSqlSession implements SqlSession {
   @Override
   public void select(String statement, Object parameter, RowBounds rowBounds, ResultHandler handler) {
     try {
+      dispatchBatchLoaders();
       MappedStatement ms = configuration.getMappedStatement(statement);
       executor.query(ms, wrapCollection(parameter), rowBounds, handler);
     } catch (Exception e) {
@@ -192,7 +224,9 @@ public class DefaultSqlSession implements SqlSession {
   @Override
   public int update(String statement, Object parameter) {
     try {
+      dispatchBatchLoaders();
       dirty = true;
+      clearBatchLoaders();
       MappedStatement ms = configuration.getMappedStatement(statement);
       return executor.update(ms, wrapCollection(parameter));
     } catch (Exception e) {
@@ -220,7 +254,9 @@ public class DefaultSqlSession implements SqlSession {
   @Override
   public void commit(boolean force) {
     try {
+      dispatchBatchLoaders();
       executor.commit(isCommitOrRollbackRequired(force));
+      clearBatchLoaders();
       dirty = false;
     } catch (Exception e) {
       throw ExceptionFactory.wrapException("Error committing transaction.  Cause: " + e, e);
@@ -237,7 +273,9 @@ public class DefaultSqlSession implements SqlSession {
   @Override
   public void rollback(boolean force) {
     try {
+      dispatchBatchLoaders();
       executor.rollback(isCommitOrRollbackRequired(force));
+      clearBatchLoaders();
       dirty = false;
     } catch (Exception e) {
       throw ExceptionFactory.wrapException("Error rolling back transaction.  Cause: " + e, e);
@@ -249,6 +287,7 @@ public class DefaultSqlSession implements SqlSession {
   @Override
   public List<BatchResult> flushStatements() {
     try {
+      dispatchBatchLoaders();
       return executor.flushStatements();
     } catch (Exception e) {
       throw ExceptionFactory.wrapException("Error flushing statements.  Cause: " + e, e);
@@ -260,8 +299,13 @@ public class DefaultSqlSession implements SqlSession {
   @Override
   public void close() {
     try {
-      executor.close(isCommitOrRollbackRequired(false));
-      closeCursors();
+      cancelBatchLoaders();
+      try {
+        // stops the producers of prefetching cursors before their connection is closed or returned
+        closeCursors();
+      } finally {
+        executor.close(isCommitOrRollbackRequired(false));
+      }
       dirty = false;
     } finally {
       ErrorContext.instance().reset();
@@ -281,6 +325,14 @@ public class DefaultSqlSession implements SqlSession {
     }
   }
 
+  /**
+   * @return the factory that opened this session, or {@code null} when the session was created without one
+   * @since 3.5.3
+   */
+  public SqlSessionFactory getSqlSessionFactory() {
+    return sqlSessionFactory;
+  }
+
   @Override
   public Configuration getConfiguration() {
     return configuration;
@@ -304,6 +356,50 @@ public class DefaultSqlSession implements SqlSession {
   @Override
   public void clearCache() {
     executor.clearLocalCache();
+    clearBatchLoaders();
+  }
+
+  private void clearBatchLoaders() {
+    if (batchLoaders != null) {
+      for (BatchLoader<?, ?> batchLoader : new ArrayList<>(batchLoaders.values())) {
+        batchLoader.clear();
+      }
+    }
+  }
+
+  /**
+   * Dispatches the keys queued in the batch loaders before the session executes anything else, so the futures of the
+   * keys complete without an explicit dispatch. The futures complete on this thread and their dependent stages may
+   * create loaders or queue keys, so the loaders are dispatched from a snapshot until none of them has queued keys.
+   */
+  private void dispatchBatchLoaders() {
+    if (batchLoaders == null || dispatchingBatchLoaders) {
+      return;
+    }
+    dispatchingBatchLoaders = true;
+    try {
+      boolean queued = true;
+      while (queued) {
+        queued = false;
+        for (BatchLoader<?, ?> batchLoader : new ArrayList<>(batchLoaders.values())) {
+          batchLoader.dispatch();
+        }
+        for (BatchLoader<?, ?> batchLoader : batchLoaders.values()) {
+          queued |= batchLoader.getQueuedCount() > 0;
+        }
+      }
+    } finally {
+      dispatchingBatchLoaders = false;
+    }
+  }
+
+  private void cancelBatchLoaders() {
+    if (batchLoaders != null) {
+      final ExecutorException cause = new ExecutorException("The session was closed before the key was dispatched.");
+      for (DefaultBatchLoader<?, ?> batchLoader : new ArrayList<>(batchLoaders.values())) {
+        batchLoader.cancel(cause);
+      }
+    }
   }
 
   private <T> void registerCursor(Cursor<T> cursor) {
@@ -0,0 +1,157 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.defaults;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.exceptions.ExceptionFactory;
+import org.apache.ibatis.executor.CachingExecutor;
+import org.apache.ibatis.executor.ErrorContext;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.sharding.ShardFunction;
+import org.apache.ibatis.executor.sharding.ShardingExecutor;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.TransactionIsolationLevel;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.TransactionFactory;
+import org.apache.ibatis.transaction.managed.ManagedTransactionFactory;
+
+/**
+ * Opens sessions that run the statements of one configuration on several environments, the shards.
+ *
+ * @since 3.5.3
+ * @see ShardingExecutor
+ */
+public class ShardedSqlSessionFactory implements SqlSessionFactory {
+
+  private final Configuration configuration;
+  private final Map<String, Environment> shards;
+  private final ShardFunction shardFunction;
+
+  /**
+   * @param configuration the configuration of the statements
+   * @param shards the environments of the shards by shard id
+   * @param shardFunction the function choosing the shard of each statement
+   */
+  public ShardedSqlSessionFactory(Configuration configuration, Map<String, Environment> shards, ShardFunction shardFunction) {
+    if (shards.isEmpty()) {
+      throw new IllegalArgumentException("At least one shard is required.");
+    }
+    this.configuration = configuration;
+    this.shards = new LinkedHashMap<>(shards);
+    this.shardFunction = shardFunction;
+  }
+
+  @Override
+  public SqlSession openSession() {
+    return openSessionFromShards(configuration.getDefaultExecutorType(), null, false);
+  }
+
+  @Override
+  public SqlSession openSession(boolean autoCommit) {
+    return openSessionFromShards(configuration.getDefaultExecutorType(), null, autoCommit);
+  }
+
+  @Override
+  public SqlSession openSession(ExecutorType execType) {
+    return openSessionFromShards(execType, null, false);
+  }
+
+  @Override
+  public SqlSession openSession(TransactionIsolationLevel level) {
+    return openSessionFromShards(configuration.getDefaultExecutorType(), level, false);
+  }
+
+  @Override
+  public SqlSession openSession(ExecutorType execType, TransactionIsolationLevel level) {
+    return openSessionFromShards(execType, level, false);
+  }
+
+  @Override
+  public SqlSession openSession(ExecutorType execType, boolean autoCommit) {
+    return openSessionFromShards(execType, null, autoCommit);
+  }
+
+  @Override
+  public SqlSession openSession(Connection connection) {
+    throw new UnsupportedOperationException("A sharded session needs a connection per shard.");
+  }
+
+  @Override
+  public SqlSession openSession(ExecutorType execType, Connection connection) {
+    throw new UnsupportedOperationException("A sharded session needs a connection per shard.");
+  }
+
+  @Override
+  public Configuration getConfiguration() {
+    return configuration;
+  }
+
+  private SqlSession openSessionFromShards(ExecutorType execType, TransactionIsolationLevel level, boolean autoCommit) {
+    final List<Transaction> transactions = new ArrayList<>(shards.size());
+    try {
+      final Map<String, Executor> executors = new LinkedHashMap<>();
+      for (Map.Entry<String, Environment> shard : shards.entrySet()) {
+        final Environment environment = shard.getValue();
+        final TransactionFactory transactionFactory = getTransactionFactoryFromEnvironment(environment);
+        final Transaction tx = transactionFactory.newTransaction(environment.getDataSource(), level, autoCommit);
+        transactions.add(tx);
+        executors.put(shard.getKey(), ShardingExecutor.newShardExecutor(configuration, tx, execType));
+      }
+      Executor executor = new ShardingExecutor(configuration, executors, shardFunction);
+      if (configuration.isCacheEnabled()) {
+        executor = new CachingExecutor(executor);
+      }
+      for (Interceptor interceptor : configuration.getInterceptors()) {
+        executor = (Executor) interceptor.plugin(executor);
+      }
+      return new DefaultSqlSession(configuration, executor, autoCommit, this);
+    } catch (Exception e) {
+      for (Transaction tx : transactions) {
+        closeTransaction(tx); // may have fetched a connection so lets call close()
+      }
+      throw ExceptionFactory.wrapException("Error opening session.  Cause: " + e, e);
+    } finally {
+      ErrorContext.instance().reset();
+    }
+  }
+
+  private TransactionFactory getTransactionFactoryFromEnvironment(Environment environment) {
+    if (environment == null || environment.getTransactionFactory() == null) {
+      return new ManagedTransactionFactory();
+    }
+    return environment.getTransactionFactory();
+  }
+
+  private void closeTransaction(Transaction tx) {
+    try {
+      tx.close();
+    } catch (SQLException ignore) {
+      // Intentionally ignore. Prefer previous error.
+    }
+  }
+
+}
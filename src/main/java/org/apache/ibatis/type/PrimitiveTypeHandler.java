@@ -0,0 +1,102 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Implemented by type handlers that can read a column as a primitive value, so results mapped to primitive
+ * properties do not need to be boxed. Just like with JDBC, {@link ResultSet#wasNull()} tells after each call
+ * whether the column was SQL NULL.
+ * <p>
+ * A handler overrides the method matching its {@link #getPrimitiveType() primitive type}. The default methods read
+ * the boxed result of the {@link TypeHandler} and unbox it, SQL NULL being read as zero.
+ * <p>
+ * The primitive readers are used by compiled row mappers, row keys and columnar results. Automatic, property and
+ * constructor mappings set their values through {@link org.apache.ibatis.reflection.MetaObject} and
+ * {@link org.apache.ibatis.reflection.factory.ObjectFactory}, which take boxed values, so they keep reading
+ * {@link TypeHandler#getResult(ResultSet, int)}.
+ *
+ * @since 3.5.3
+ */
+public interface PrimitiveTypeHandler {
+
+  /**
+   * @return {@code int.class}, {@code long.class} or {@code double.class}
+   */
+  Class<?> getPrimitiveType();
+
+  default int getIntResult(ResultSet rs, int columnIndex) throws SQLException {
+    if (!(this instanceof TypeHandler)) {
+      return rs.getInt(columnIndex);
+    }
+    final Number result = (Number) ((TypeHandler<?>) this).getResult(rs, columnIndex);
+    return result == null ? 0 : result.intValue();
+  }
+
+  default long getLongResult(ResultSet rs, int columnIndex) throws SQLException {
+    if (!(this instanceof TypeHandler)) {
+      return rs.getLong(columnIndex);
+    }
+    final Number result = (Number) ((TypeHandler<?>) this).getResult(rs, columnIndex);
+    return result == null ? 0 : result.longValue();
+  }
+
+  default double getDoubleResult(ResultSet rs, int columnIndex) throws SQLException {
+    if (!(this instanceof TypeHandler)) {
+      return rs.getDouble(columnIndex);
+    }
+    final Number result = (Number) ((TypeHandler<?>) this).getResult(rs, columnIndex);
+    return result == null ? 0 : result.doubleValue();
+  }
+
+  /**
+   * Returns the primitive type the results of a type handler can be read as. A subclass of a primitive type handler
+   * that changes how the boxed value is read must keep being read through {@link TypeHandler#getResult}, so no
+   * primitive type is returned for it.
+   *
+   * @param typeHandler the type handler
+   * @return {@code int.class}, {@code long.class}, {@code double.class} or null
+   */
+  static Class<?> resolvePrimitiveType(TypeHandler<?> typeHandler) {
+    if (!(typeHandler instanceof PrimitiveTypeHandler)) {
+      return null;
+    }
+    final Class<?> primitiveType = ((PrimitiveTypeHandler) typeHandler).getPrimitiveType();
+    final String primitiveReaderName;
+    if (primitiveType == int.class) {
+      primitiveReaderName = "getIntResult";
+    } else if (primitiveType == long.class) {
+      primitiveReaderName = "getLongResult";
+    } else if (primitiveType == double.class) {
+      primitiveReaderName = "getDoubleResult";
+    } else {
+      return null;
+    }
+    final Class<?> handlerType = typeHandler.getClass();
+    try {
+      final Class<?> primitiveReader = handlerType.getMethod(primitiveReaderName, ResultSet.class, int.class).getDeclaringClass();
+      final boolean overridden = !handlerType.getMethod("getResult", ResultSet.class, int.class).getDeclaringClass().isAssignableFrom(primitiveReader)
+          || typeHandler instanceof BaseTypeHandler
+              && !handlerType.getMethod("getNullableResult", ResultSet.class, int.class).getDeclaringClass().isAssignableFrom(primitiveReader);
+      return overridden ? null : primitiveType;
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+}
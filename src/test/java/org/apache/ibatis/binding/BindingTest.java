@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -22,12 +22,14 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import javassist.util.proxy.Proxy;
 
@@ -50,7 +52,10 @@ import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.defaults.DefaultSqlSession;
+import org.apache.ibatis.transaction.Transaction;
 import org.apache.ibatis.transaction.TransactionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
 import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -453,6 +458,27 @@ class BindingTest {
     }
   }
 
+  @Test
+  void shouldSelectAuthorsAsynchronously() throws Exception {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      BoundAuthorMapper mapper = session.getMapper(BoundAuthorMapper.class);
+      CompletableFuture<Author> author = mapper.selectAuthorAsync(101);
+      CompletableFuture<List<Integer>> ids = mapper.selectAuthorIdsAsync();
+      assertEquals("jim", author.get().getUsername());
+      assertEquals(Arrays.asList(101, 102), ids.get());
+    }
+  }
+
+  @Test
+  void shouldRejectAsyncMethodsOfSessionsNotOpenedByAFactory() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    Transaction transaction = new JdbcTransaction(configuration.getEnvironment().getDataSource(), null, false);
+    try (SqlSession session = new DefaultSqlSession(configuration, configuration.newExecutor(transaction))) {
+      BoundAuthorMapper mapper = session.getMapper(BoundAuthorMapper.class);
+      assertThrows(BindingException.class, () -> mapper.selectAuthorAsync(101));
+    }
+  }
+
   @Test
   void shouldSelectOneAuthorByConstructor() {
     try (SqlSession session = sqlSessionFactory.openSession()) {
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2018 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import org.apache.ibatis.executor.BatchResult;
 import org.apache.ibatis.session.RowBounds;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @CacheNamespace(readWrite = false)
 public interface BoundAuthorMapper {
@@ -68,6 +69,30 @@ public interface BoundAuthorMapper {
 
   //======================================================
 
+  @ConstructorArgs({
+      @Arg(column = "AUTHOR_ID", javaType = int.class)
+  })
+  @Results({
+      @Result(property = "username", column = "AUTHOR_USERNAME"),
+      @Result(property = "password", column = "AUTHOR_PASSWORD"),
+      @Result(property = "email", column = "AUTHOR_EMAIL"),
+      @Result(property = "bio", column = "AUTHOR_BIO")
+  })
+  @Select({
+      "SELECT ",
+      "  ID as AUTHOR_ID,",
+      "  USERNAME as AUTHOR_USERNAME,",
+      "  PASSWORD as AUTHOR_PASSWORD,",
+      "  EMAIL as AUTHOR_EMAIL,",
+      "  BIO as AUTHOR_BIO",
+      "FROM AUTHOR WHERE ID = #{id}"})
+  CompletableFuture<Author> selectAuthorAsync(int id);
+
+  @Select("SELECT ID FROM AUTHOR ORDER BY ID")
+  CompletableFuture<List<Integer>> selectAuthorIdsAsync();
+
+  //======================================================
+
   @ConstructorArgs({
       @Arg(column = "AUTHOR_ID", javaType = Integer.class),
       @Arg(column = "AUTHOR_USERNAME", javaType = String.class),
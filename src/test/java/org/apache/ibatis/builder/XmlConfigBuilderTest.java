@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -99,7 +99,19 @@ class XmlConfigBuilderTest {
       assertNull(config.getLogPrefix());
       assertNull(config.getLogImpl());
       assertNull(config.getConfigurationFactory());
+      assertThat(config.isDynamicSqlShapeCacheEnabled()).isFalse();
       assertThat(config.getTypeHandlerRegistry().getTypeHandler(RoundingMode.class)).isInstanceOf(EnumTypeHandler.class);
+      assertThat(config.isCompiledRowMappersEnabled()).isFalse();
+      assertThat(config.isResultSetLayoutCacheEnabled()).isFalse();
+      assertThat(config.isCompactMapRowsEnabled()).isFalse();
+      assertThat(config.getNestedQueryBatchSize()).isEqualTo(500);
+      assertThat(config.getCursorPrefetchSize()).isEqualTo(0);
+      assertThat(config.getStatementCacheSize()).isEqualTo(0);
+      assertThat(config.getBatchFlushSize()).isEqualTo(0);
+      assertThat(config.getBatchFlushBytes()).isEqualTo(0);
+      assertThat(config.isBatchGroupingEnabled()).isFalse();
+      assertThat(config.getMultiRowInsertSize()).isEqualTo(0);
+      assertThat(config.getMultiRowInsertMaxParameters()).isEqualTo(0);
     }
   }
 
@@ -194,6 +206,18 @@ class XmlConfigBuilderTest {
       assertThat(config.getLogImpl().getName()).isEqualTo(Slf4jImpl.class.getName());
       assertThat(config.getVfsImpl().getName()).isEqualTo(JBoss6VFS.class.getName());
       assertThat(config.getConfigurationFactory().getName()).isEqualTo(String.class.getName());
+      assertThat(config.isDynamicSqlShapeCacheEnabled()).isTrue();
+      assertThat(config.isCompiledRowMappersEnabled()).isTrue();
+      assertThat(config.isResultSetLayoutCacheEnabled()).isTrue();
+      assertThat(config.isCompactMapRowsEnabled()).isTrue();
+      assertThat(config.getNestedQueryBatchSize()).isEqualTo(100);
+      assertThat(config.getCursorPrefetchSize()).isEqualTo(16);
+      assertThat(config.getStatementCacheSize()).isEqualTo(64);
+      assertThat(config.getBatchFlushSize()).isEqualTo(1000);
+      assertThat(config.getBatchFlushBytes()).isEqualTo(1048576);
+      assertThat(config.isBatchGroupingEnabled()).isTrue();
+      assertThat(config.getMultiRowInsertSize()).isEqualTo(100);
+      assertThat(config.getMultiRowInsertMaxParameters()).isEqualTo(2000);
 
       assertThat(config.getTypeAliasRegistry().getTypeAliases().get("blogauthor")).isEqualTo(Author.class);
       assertThat(config.getTypeAliasRegistry().getTypeAliases().get("blog")).isEqualTo(Blog.class);
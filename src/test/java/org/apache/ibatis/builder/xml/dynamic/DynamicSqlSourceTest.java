@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -25,10 +25,13 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.domain.blog.Author;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.scripting.ScriptingException;
 import org.apache.ibatis.scripting.xmltags.ChooseSqlNode;
 import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
 import org.apache.ibatis.scripting.xmltags.ForEachSqlNode;
@@ -37,6 +40,7 @@ import org.apache.ibatis.scripting.xmltags.MixedSqlNode;
 import org.apache.ibatis.scripting.xmltags.SetSqlNode;
 import org.apache.ibatis.scripting.xmltags.SqlNode;
 import org.apache.ibatis.scripting.xmltags.TextSqlNode;
+import org.apache.ibatis.scripting.xmltags.TrimSqlNode;
 import org.apache.ibatis.scripting.xmltags.WhereSqlNode;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSessionFactory;
@@ -312,6 +316,21 @@ class DynamicSqlSourceTest extends BaseDataTest {
     assertEquals(expected, boundSql.getSql());
   }
 
+  @Test
+  void shouldTrimNestedFragmentsInPlace() throws Exception {
+    final String expected = "SELECT * FROM BLOG WHERE  (  ID = ?     or NAME = ?  ) AND STATE = ?";
+    DynamicSqlSource source = createDynamicSqlSource(
+        new TextSqlNode("SELECT * FROM BLOG"),
+        new WhereSqlNode(new Configuration(), mixedContents(
+            new TrimSqlNode(new Configuration(), mixedContents(
+                new IfSqlNode(mixedContents(new TextSqlNode("   or ID = ?  ")), "true"),
+                new IfSqlNode(mixedContents(new TextSqlNode("   or NAME = ? OR")), "true")),
+                "AND (", "OR ", ")", "or"),
+            new TextSqlNode(" AND STATE = ?"))));
+    BoundSql boundSql = source.getBoundSql(null);
+    assertEquals(expected, boundSql.getSql());
+  }
+
   @Test
   void shouldIterateOnceForEachItemInCollection() throws Exception {
     final HashMap<String, String[]> parameterObject = new HashMap<String, String[]>() {{
@@ -399,6 +418,100 @@ class DynamicSqlSourceTest extends BaseDataTest {
     Assertions.assertEquals("id=", sql);
   }
 
+  @Test
+  void shouldSubstituteEachTextSegment() {
+    Map<String, Object> param = new HashMap<>();
+    param.put("table", "BLOG");
+    param.put("id", 1);
+    final DynamicSqlSource source = new DynamicSqlSource(new Configuration(), mixedContents(
+        new TextSqlNode("SELECT * FROM ${table} WHERE ID = ${id} AND NAME = '\\${name}'")));
+    assertEquals("SELECT * FROM BLOG WHERE ID = 1 AND NAME = '${name}'", source.getBoundSql(param).getSql());
+  }
+
+  @Test
+  void shouldFilterEachSubstitutedValue() {
+    Map<String, Object> param = new HashMap<>();
+    param.put("table", "BLOG");
+    param.put("column", "NAME; DROP TABLE BLOG");
+    final DynamicSqlSource source = new DynamicSqlSource(new Configuration(), mixedContents(
+        new TextSqlNode("SELECT ${column} FROM ${table}", Pattern.compile("^[a-zA-Z0-9_]*$"))));
+    Assertions.assertThrows(ScriptingException.class, () -> source.getBoundSql(param));
+  }
+
+  @Test
+  void shouldReadBeanPropertiesFromBindings() {
+    final Configuration configuration = new Configuration();
+    final DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM AUTHOR"),
+        new WhereSqlNode(configuration, mixedContents(
+            new IfSqlNode(mixedContents(new TextSqlNode("AND USERNAME = ${username}")), "username != null and id > 0"),
+            new IfSqlNode(mixedContents(new TextSqlNode("AND SECTION = ${favouriteSection}")), "favouriteSection != null")))));
+    Author author = new Author(1, "jim", null, null, null, null);
+    assertEquals("SELECT * FROM AUTHOR WHERE  USERNAME = jim", source.getBoundSql(author).getSql());
+  }
+
+  @Test
+  void shouldFallbackToSimpleParameterObject() {
+    final DynamicSqlSource source = new DynamicSqlSource(new Configuration(), mixedContents(
+        new TextSqlNode("SELECT * FROM AUTHOR"),
+        new IfSqlNode(mixedContents(new TextSqlNode("WHERE USERNAME = #{username}")), "username == 'jim'")));
+    assertEquals("SELECT * FROM AUTHOR WHERE USERNAME = ?", source.getBoundSql("jim").getSql());
+    assertEquals("SELECT * FROM AUTHOR", source.getBoundSql("joe").getSql());
+  }
+
+  @Test
+  void shouldReuseSqlForTheSameShapeWhenShapeCacheIsEnabled() {
+    final Configuration configuration = new Configuration();
+    configuration.setDynamicSqlShapeCacheEnabled(true);
+    final DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG"),
+        new WhereSqlNode(configuration, mixedContents(
+            new IfSqlNode(mixedContents(new TextSqlNode("AND ID = #{id}")), "id != null"),
+            new IfSqlNode(mixedContents(new TextSqlNode("AND ID IS NULL")), "id == null")))));
+
+    BoundSql first = source.getBoundSql(new Bean("1"));
+    BoundSql second = source.getBoundSql(new Bean("2"));
+    assertEquals("SELECT * FROM BLOG WHERE  ID = ?", first.getSql());
+    assertEquals("SELECT * FROM BLOG WHERE  ID = ?", second.getSql());
+    Assertions.assertSame(first.getParameterMappings(), second.getParameterMappings());
+    assertEquals("2", second.getAdditionalParameter("_parameter.id"));
+
+    BoundSql third = source.getBoundSql(new Bean(null));
+    assertEquals("SELECT * FROM BLOG WHERE  ID IS NULL", third.getSql());
+    assertEquals(0, third.getParameterMappings().size());
+  }
+
+  @Test
+  void shouldResolveShapeFromChosenBranch() {
+    final Configuration configuration = new Configuration();
+    configuration.setDynamicSqlShapeCacheEnabled(true);
+    final DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG"),
+        new ChooseSqlNode(Arrays.asList(
+            new IfSqlNode(mixedContents(new TextSqlNode("WHERE ID = #{id}")), "id != null"),
+            new IfSqlNode(mixedContents(new TextSqlNode("WHERE NAME = #{name}")), "name != null")),
+            mixedContents(new TextSqlNode("WHERE 1 = 0")))));
+
+    Map<String, Object> byName = new HashMap<>();
+    byName.put("name", "mybatis");
+    assertEquals("SELECT * FROM BLOG WHERE NAME = ?", source.getBoundSql(byName).getSql());
+    Map<String, Object> byId = new HashMap<>();
+    byId.put("id", 1);
+    assertEquals("SELECT * FROM BLOG WHERE ID = ?", source.getBoundSql(byId).getSql());
+    assertEquals("SELECT * FROM BLOG WHERE 1 = 0", source.getBoundSql(new HashMap<>()).getSql());
+    assertEquals("SELECT * FROM BLOG WHERE NAME = ?", source.getBoundSql(byName).getSql());
+  }
+
+  @Test
+  void shouldNotUseShapeCacheWhenTextIsSubstituted() {
+    final Configuration configuration = new Configuration();
+    configuration.setDynamicSqlShapeCacheEnabled(true);
+    final DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID = ${id}")));
+    assertEquals("SELECT * FROM BLOG WHERE ID = 1", source.getBoundSql(new Bean("1")).getSql());
+    assertEquals("SELECT * FROM BLOG WHERE ID = 2", source.getBoundSql(new Bean("2")).getSql());
+  }
+
   public static class Bean {
     public String id;
     Bean(String property) {
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -27,6 +27,7 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -137,6 +138,7 @@ class DefaultCursorTest {
    */
   protected abstract class ImpatientResultSet implements ResultSet {
     private int rowIndex = -1;
+    private List<String> columnLabels = Arrays.asList("id", "role");
     private List<Map<String, Object>> rows = new ArrayList<>();
 
     protected ImpatientResultSet() {
@@ -169,6 +171,16 @@ class DefaultCursorTest {
       return (Integer) rows.get(rowIndex).get(columnLabel);
     }
 
+    @Override
+    public String getString(int columnIndex) throws SQLException {
+      return getString(columnLabels.get(columnIndex - 1));
+    }
+
+    @Override
+    public int getInt(int columnIndex) throws SQLException {
+      return getInt(columnLabels.get(columnIndex - 1));
+    }
+
     @Override
     public boolean wasNull() throws SQLException {
       throwIfClosed();
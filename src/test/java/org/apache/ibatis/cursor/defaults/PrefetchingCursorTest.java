@@ -0,0 +1,164 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PrefetchingCursorTest {
+
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void shouldReturnRowsReadByProducer() {
+    CountingCursor delegate = new CountingCursor(100, -1);
+    try (PrefetchingCursor<Integer> cursor = new PrefetchingCursor<>(delegate, 8, executor)) {
+      assertFalse(cursor.isOpen());
+      assertEquals(-1, cursor.getCurrentIndex());
+      List<Integer> rows = new ArrayList<>();
+      for (Integer row : cursor) {
+        rows.add(row);
+        assertTrue(delegate.read.get() - rows.size() <= 8 + 1);
+      }
+      assertEquals(100, rows.size());
+      assertEquals(Integer.valueOf(99), rows.get(99));
+      assertEquals(99, cursor.getCurrentIndex());
+      assertTrue(cursor.isConsumed());
+      assertFalse(cursor.isOpen());
+      assertTrue(delegate.closed);
+      assertNotEquals(Thread.currentThread(), delegate.readingThread);
+    }
+  }
+
+  @Test
+  void shouldNotProduceOnConsumerThreadOfDirectExecutor() {
+    CountingCursor delegate = new CountingCursor(100, -1);
+    try (PrefetchingCursor<Integer> cursor = new PrefetchingCursor<>(delegate, 8, Runnable::run)) {
+      List<Integer> rows = new ArrayList<>();
+      cursor.forEach(rows::add);
+      assertEquals(100, rows.size());
+      assertTrue(cursor.isConsumed());
+      assertNotEquals(Thread.currentThread(), delegate.readingThread);
+    }
+  }
+
+  @Test
+  void shouldThrowReadErrorAfterPreviousRows() {
+    CountingCursor delegate = new CountingCursor(100, 3);
+    try (PrefetchingCursor<Integer> cursor = new PrefetchingCursor<>(delegate, 8, executor)) {
+      Iterator<Integer> iterator = cursor.iterator();
+      for (int i = 0; i < 3; i++) {
+        assertEquals(Integer.valueOf(i), iterator.next());
+      }
+      IllegalStateException e = assertThrows(IllegalStateException.class, iterator::hasNext);
+      assertSame(delegate.error, e);
+      assertTrue(delegate.closed);
+    }
+  }
+
+  @Test
+  void shouldStopProducerOnClose() {
+    CountingCursor delegate = new CountingCursor(1000, -1);
+    PrefetchingCursor<Integer> cursor = new PrefetchingCursor<>(delegate, 1, executor);
+    Iterator<Integer> iterator = cursor.iterator();
+    assertEquals(Integer.valueOf(0), iterator.next());
+    cursor.close();
+    assertTrue(delegate.closed);
+    assertTrue(delegate.read.get() < 1000);
+    assertFalse(iterator.hasNext());
+    assertThrows(IllegalStateException.class, cursor::iterator);
+  }
+
+  private static class CountingCursor implements Cursor<Integer> {
+    private final int size;
+    private final int failAt;
+    private final AtomicInteger read = new AtomicInteger();
+    private final IllegalStateException error = new IllegalStateException("read failed");
+    private volatile Thread readingThread;
+    private volatile boolean closed;
+
+    CountingCursor(int size, int failAt) {
+      this.size = size;
+      this.failAt = failAt;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return !closed;
+    }
+
+    @Override
+    public boolean isConsumed() {
+      return read.get() == size;
+    }
+
+    @Override
+    public int getCurrentIndex() {
+      return read.get() - 1;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+      return new Iterator<Integer>() {
+        @Override
+        public boolean hasNext() {
+          return !closed && read.get() < size;
+        }
+
+        @Override
+        public Integer next() {
+          readingThread = Thread.currentThread();
+          if (read.get() == failAt) {
+            throw error;
+          }
+          return read.getAndIncrement();
+        }
+      };
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+
+}
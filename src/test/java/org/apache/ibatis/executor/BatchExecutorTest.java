@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,7 +15,18 @@
  */
 package org.apache.ibatis.executor;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
 import org.junit.jupiter.api.Test;
 
 class BatchExecutorTest extends BaseExecutorTest {
@@ -24,6 +35,116 @@ class BatchExecutorTest extends BaseExecutorTest {
   void dummy() {
   }
 
+  @Test
+  void shouldGroupInterleavedStatementsBySql() throws Exception {
+    config.setBatchGroupingEnabled(true);
+    Executor executor = createExecutor(new JdbcTransaction(ds, null, false));
+    try {
+      MappedStatement insertStatement = ExecutorTestHelper.prepareInsertAuthorMappedStatement(config);
+      MappedStatement updateStatement = ExecutorTestHelper.prepareUpdateAuthorMappedStatement(config);
+      for (int id = 201; id <= 203; id++) {
+        Author author = new Author(id, "someone", "******", "someone@apache.org", null, Section.NEWS);
+        executor.update(insertStatement, author);
+        author.setUsername("someone else");
+        executor.update(updateStatement, author);
+      }
+      List<BatchResult> results = executor.flushStatements();
+      assertEquals(2, results.size());
+      assertEquals(insertStatement, results.get(0).getMappedStatement());
+      assertEquals(3, results.get(0).getUpdateCounts().length);
+      assertEquals(updateStatement, results.get(1).getMappedStatement());
+      assertEquals(3, results.get(1).getUpdateCounts().length);
+    } finally {
+      executor.rollback(true);
+      executor.close(false);
+    }
+  }
+
+  @Test
+  void shouldFlushWhenBatchSizeIsReached() throws Exception {
+    config.setBatchFlushSize(2);
+    Executor executor = createExecutor(new JdbcTransaction(ds, null, false));
+    try {
+      MappedStatement insertStatement = ExecutorTestHelper.prepareInsertAuthorMappedStatement(config);
+      for (int id = 301; id <= 303; id++) {
+        executor.update(insertStatement, new Author(id, "someone", "******", "someone@apache.org", null, Section.NEWS));
+      }
+      List<BatchResult> results = executor.flushStatements();
+      assertEquals(1, results.size());
+      assertEquals(1, results.get(0).getParameterObjects().size());
+    } finally {
+      executor.rollback(true);
+      executor.close(false);
+    }
+  }
+
+  @Test
+  void shouldFlushWhenBatchBytesAreReachedBeforeBatchSize() throws Exception {
+    config.setBatchFlushSize(10);
+    config.setBatchFlushBytes(500);
+    Executor executor = createExecutor(new JdbcTransaction(ds, null, false));
+    try {
+      MappedStatement insertStatement = ExecutorTestHelper.prepareInsertAuthorMappedStatement(config);
+      // a bio of 100 chars counts 200 bytes, so two rows cross the limit while the row limit is far away
+      String bio = String.join("", Collections.nCopies(100, "b"));
+      for (int id = 501; id <= 505; id++) {
+        executor.update(insertStatement, new Author(id, "someone", "******", "someone@apache.org", bio, Section.NEWS));
+      }
+      List<BatchResult> results = executor.flushStatements();
+      assertEquals(1, results.size());
+      assertEquals(1, results.get(0).getParameterObjects().size());
+      assertEquals(505, ((Author) results.get(0).getParameterObjects().get(0)).getId());
+    } finally {
+      executor.rollback(true);
+      executor.close(false);
+    }
+  }
+
+  @Test
+  void shouldInsertBatchedRowsWithMultiRowInserts() throws Exception {
+    config.setMultiRowInsertSize(2);
+    Executor executor = createExecutor(new JdbcTransaction(ds, null, false));
+    try {
+      MappedStatement insertStatement = ExecutorTestHelper.prepareInsertAuthorMappedStatement(config);
+      MappedStatement selectStatement = ExecutorTestHelper.prepareSelectOneAuthorMappedStatement(config);
+      for (int id = 401; id <= 403; id++) {
+        executor.update(insertStatement, new Author(id, "someone" + id, "******", "someone@apache.org", null, Section.NEWS));
+      }
+      List<BatchResult> results = executor.flushStatements();
+      assertEquals(1, results.size());
+      assertArrayEquals(new int[] { 1, 1, 1 }, results.get(0).getUpdateCounts());
+      List<Author> authors = executor.query(selectStatement, 403, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      assertEquals("someone403", authors.get(0).getUsername());
+    } finally {
+      executor.rollback(true);
+      executor.close(false);
+    }
+  }
+
+  @Test
+  void shouldBindParametersOfMultiRowInsertsWhenRowsAreAdded() throws Exception {
+    config.setMultiRowInsertSize(2);
+    Executor executor = createExecutor(new JdbcTransaction(ds, null, false));
+    try {
+      MappedStatement insertStatement = ExecutorTestHelper.prepareInsertAuthorMappedStatement(config);
+      MappedStatement selectStatement = ExecutorTestHelper.prepareSelectOneAuthorMappedStatement(config);
+      Author author = new Author(601, "someone", "******", "someone@apache.org", null, Section.NEWS);
+      for (int id = 601; id <= 603; id++) {
+        author.setId(id);
+        author.setUsername("someone" + id);
+        executor.update(insertStatement, author);
+      }
+      executor.flushStatements();
+      for (int id = 601; id <= 603; id++) {
+        List<Author> authors = executor.query(selectStatement, id, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+        assertEquals("someone" + id, authors.get(0).getUsername());
+      }
+    } finally {
+      executor.rollback(true);
+      executor.close(false);
+    }
+  }
+
   @Override
   protected Executor createExecutor(Transaction transaction) {
     return new BatchExecutor(config, transaction);
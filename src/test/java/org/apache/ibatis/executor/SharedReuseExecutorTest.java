@@ -0,0 +1,110 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
+import org.junit.jupiter.api.Test;
+
+class SharedReuseExecutorTest extends BaseExecutorTest {
+
+  SharedReuseExecutorTest() {
+    config.setStatementCacheSize(8);
+  }
+
+  @Test
+  void shouldReuseStatementsAcrossTransactionsOfAnExecutor() throws Exception {
+    PooledDataSource ds = createPooledDataSource(BLOG_PROPERTIES);
+    try {
+      MappedStatement selectStatement = ExecutorTestHelper.prepareSelectOneAuthorMappedStatement(config);
+      StatementCache statementCache = config.getStatementCache();
+      Executor executor = createExecutor(new JdbcTransaction(ds, null, false));
+      try {
+        for (int i = 0; i < 3; i++) {
+          List<Author> authors = executor.query(selectStatement, 101, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+          assertEquals(101, authors.get(0).getId());
+          executor.commit(true);
+        }
+        assertEquals(1, statementCache.getMissCount());
+        assertEquals(2, statementCache.getHitCount());
+        assertEquals(1, statementCache.getSize());
+      } finally {
+        executor.close(false);
+      }
+      assertEquals(1, statementCache.getSize());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldReuseStatementsOfPooledConnectionAcrossExecutors() throws Exception {
+    PooledDataSource ds = createPooledDataSource(BLOG_PROPERTIES);
+    ds.setPoolMaximumActiveConnections(1);
+    try {
+      MappedStatement selectStatement = ExecutorTestHelper.prepareSelectOneAuthorMappedStatement(config);
+      for (int i = 0; i < 3; i++) {
+        Executor executor = createExecutor(new JdbcTransaction(ds, null, false));
+        try {
+          List<Author> authors = executor.query(selectStatement, 101, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+          assertEquals(101, authors.get(0).getId());
+        } finally {
+          executor.close(false);
+        }
+      }
+      StatementCache statementCache = config.getStatementCache();
+      assertEquals(1, statementCache.getMissCount());
+      assertEquals(2, statementCache.getHitCount());
+      assertEquals(1, statementCache.getSize());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldCloseStatementsOfUnpooledConnectionWithTheExecutor() throws Exception {
+    UnpooledDataSource ds = createUnpooledDataSource(BLOG_PROPERTIES);
+    MappedStatement selectStatement = ExecutorTestHelper.prepareSelectOneAuthorMappedStatement(config);
+    StatementCache statementCache = config.getStatementCache();
+    for (int i = 0; i < 2; i++) {
+      Executor executor = createExecutor(new JdbcTransaction(ds, null, false));
+      try {
+        executor.query(selectStatement, 101, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+        executor.commit(true);
+        assertEquals(1, statementCache.getSize());
+      } finally {
+        executor.close(false);
+      }
+      assertEquals(0, statementCache.getSize());
+    }
+    assertEquals(2, statementCache.getMissCount());
+  }
+
+  @Override
+  protected Executor createExecutor(Transaction transaction) {
+    return new ReuseExecutor(config, transaction);
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,7 +15,13 @@
  */
 package org.apache.ibatis.executor.resultset;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -28,16 +34,24 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.jpetstore.Sequence;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.result.ColumnarResult;
+import org.apache.ibatis.executor.result.ColumnarResultHandler;
+import org.apache.ibatis.executor.result.CompactRow;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultFlag;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.mapping.SqlCommandType;
@@ -87,7 +101,7 @@ class DefaultResultSetHandlerTest {
     when(rs.getMetaData()).thenReturn(rsmd);
     when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
     when(rs.next()).thenReturn(true).thenReturn(false);
-    when(rs.getInt("CoLuMn1")).thenReturn(100);
+    when(rs.getInt(1)).thenReturn(100);
     when(rsmd.getColumnCount()).thenReturn(1);
     when(rsmd.getColumnLabel(1)).thenReturn("CoLuMn1");
     when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
@@ -129,6 +143,184 @@ class DefaultResultSetHandlerTest {
     }
   }
 
+  @Test
+  void shouldMapRowsByColumnIndexWithCompiledRowMapper() throws Exception {
+    final Configuration config = new Configuration();
+    config.setCompiledRowMappersEnabled(true);
+    final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
+    final ResultMap resultMap = new ResultMap.Builder(config, "authorMap", Author.class, Collections.singletonList(
+        new ResultMapping.Builder(config, "username", "NAME", registry.getTypeHandler(String.class)).build())).build();
+    final MappedStatement ms = new MappedStatement.Builder(config, "testSelect", new StaticSqlSource(config, "some select statement"), SqlCommandType.SELECT)
+        .resultMaps(Collections.singletonList(resultMap)).build();
+    final DefaultResultSetHandler resultSetHandler = new DefaultResultSetHandler(null/*executor*/, ms,
+        null/*parameterHandler*/, null/*resultHandler*/, null/*boundSql*/, new RowBounds(0, 100));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true).thenReturn(true).thenReturn(false);
+    when(rs.getInt(1)).thenReturn(101).thenReturn(102);
+    when(rs.getString(2)).thenReturn("jim").thenReturn("sally");
+    when(rsmd.getColumnCount()).thenReturn(2);
+    when(rsmd.getColumnLabel(1)).thenReturn("ID");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getCanonicalName());
+    when(rsmd.getColumnLabel(2)).thenReturn("NAME");
+    when(rsmd.getColumnType(2)).thenReturn(Types.VARCHAR);
+    when(rsmd.getColumnClassName(2)).thenReturn(String.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false); // for simplicity.
+
+    final List<Object> results = resultSetHandler.handleResultSets(stmt);
+    assertEquals(2, results.size());
+    assertEquals(101, ((Author) results.get(0)).getId());
+    assertEquals("jim", ((Author) results.get(0)).getUsername());
+    assertEquals(102, ((Author) results.get(1)).getId());
+    assertEquals("sally", ((Author) results.get(1)).getUsername());
+  }
+
+  @Test
+  void shouldReadColumnarResultIntoPrimitiveAndDictionaryColumns() throws Exception {
+    final MappedStatement ms = getMappedStatement();
+    final ColumnarResultHandler resultHandler = new ColumnarResultHandler();
+    final DefaultResultSetHandler resultSetHandler = new DefaultResultSetHandler(null/*executor*/, ms,
+        null/*parameterHandler*/, resultHandler, null/*boundSql*/, new RowBounds(0, 100));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true).thenReturn(true).thenReturn(true).thenReturn(false);
+    when(rs.getInt(1)).thenReturn(101).thenReturn(0).thenReturn(103);
+    when(rs.wasNull()).thenReturn(true);
+    when(rs.getString(2)).thenReturn("jim").thenReturn("sally").thenReturn("jim");
+    when(rsmd.getColumnCount()).thenReturn(2);
+    when(rsmd.getColumnLabel(1)).thenReturn("ID");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getCanonicalName());
+    when(rsmd.getColumnLabel(2)).thenReturn("NAME");
+    when(rsmd.getColumnType(2)).thenReturn(Types.VARCHAR);
+    when(rsmd.getColumnClassName(2)).thenReturn(String.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false); // for simplicity.
+
+    resultSetHandler.handleResultSets(stmt);
+    final ColumnarResult result = resultHandler.getResult();
+    assertEquals(3, result.getRowCount());
+    assertEquals(Arrays.asList("ID", "NAME"), result.getColumnNames());
+    assertEquals(int.class, result.getColumnType("id"));
+    assertArrayEquals(new int[] {101, 0, 103}, result.getIntColumn("id"));
+    assertTrue(result.isNull("id", 1));
+    assertNull(result.getValue("id", 1));
+    assertEquals(103, result.getValue("id", 2));
+    assertArrayEquals(new int[] {0, 1, 0}, result.getStringCodes("name"));
+    assertEquals(Arrays.asList("jim", "sally"), result.getStringDictionary("name"));
+    assertArrayEquals(new String[] {"jim", "sally", "jim"}, result.getStringColumn("name"));
+    Assertions.assertThrows(ExecutorException.class, () -> result.getLongColumn("id"));
+  }
+
+  @Test
+  void shouldReturnCompactRowsForMapResults() throws Exception {
+    final Configuration config = new Configuration();
+    config.setCompactMapRowsEnabled(true);
+    final ResultMap resultMap = new ResultMap.Builder(config, "mapMap", Map.class, new ArrayList<>()).build();
+    final MappedStatement ms = new MappedStatement.Builder(config, "testSelect", new StaticSqlSource(config, "some select statement"), SqlCommandType.SELECT)
+        .resultMaps(Collections.singletonList(resultMap)).build();
+    final DefaultResultSetHandler resultSetHandler = new DefaultResultSetHandler(null/*executor*/, ms,
+        null/*parameterHandler*/, null/*resultHandler*/, null/*boundSql*/, new RowBounds(0, 100));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true).thenReturn(true).thenReturn(false);
+    when(rs.getInt(1)).thenReturn(101).thenReturn(102);
+    when(rs.getString(2)).thenReturn("jim").thenReturn(null);
+    when(rsmd.getColumnCount()).thenReturn(2);
+    when(rsmd.getColumnLabel(1)).thenReturn("ID");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getCanonicalName());
+    when(rsmd.getColumnLabel(2)).thenReturn("NAME");
+    when(rsmd.getColumnType(2)).thenReturn(Types.VARCHAR);
+    when(rsmd.getColumnClassName(2)).thenReturn(String.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false); // for simplicity.
+
+    final List<Object> results = resultSetHandler.handleResultSets(stmt);
+    assertEquals(2, results.size());
+    final CompactRow first = (CompactRow) results.get(0);
+    final CompactRow second = (CompactRow) results.get(1);
+    assertSame(first.getSchema(), second.getSchema());
+    final Map<String, Object> expected = new HashMap<>();
+    expected.put("ID", 101);
+    expected.put("NAME", "jim");
+    assertEquals(expected, first);
+    assertEquals(Collections.singletonMap("ID", 102), second);
+    assertFalse(second.containsKey("NAME"));
+    Assertions.assertThrows(UnsupportedOperationException.class, () -> first.put("ID", 1));
+  }
+
+  @Test
+  void shouldCreateObjectsThroughResolvedConstructor() throws Exception {
+    final Configuration config = new Configuration();
+    config.setCompiledRowMappersEnabled(true);
+    final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
+    final ResultMap resultMap = new ResultMap.Builder(config, "sequenceMap", Sequence.class, Arrays.asList(
+        new ResultMapping.Builder(config, null, "NAME", registry.getTypeHandler(String.class)).javaType(String.class)
+            .flags(Collections.singletonList(ResultFlag.CONSTRUCTOR)).build(),
+        new ResultMapping.Builder(config, null, "NEXT_ID", registry.getTypeHandler(int.class)).javaType(int.class)
+            .flags(Collections.singletonList(ResultFlag.CONSTRUCTOR)).build())).build();
+    final MappedStatement ms = new MappedStatement.Builder(config, "testSelect", new StaticSqlSource(config, "some select statement"), SqlCommandType.SELECT)
+        .resultMaps(Collections.singletonList(resultMap)).build();
+    final DefaultResultSetHandler resultSetHandler = new DefaultResultSetHandler(null/*executor*/, ms,
+        null/*parameterHandler*/, null/*resultHandler*/, null/*boundSql*/, new RowBounds(0, 100));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true).thenReturn(true).thenReturn(false);
+    when(rs.getString(1)).thenReturn("order").thenReturn("line");
+    when(rs.getInt(2)).thenReturn(1000).thenReturn(2000);
+    when(rsmd.getColumnCount()).thenReturn(2);
+    when(rsmd.getColumnLabel(1)).thenReturn("NAME");
+    when(rsmd.getColumnType(1)).thenReturn(Types.VARCHAR);
+    when(rsmd.getColumnClassName(1)).thenReturn(String.class.getCanonicalName());
+    when(rsmd.getColumnLabel(2)).thenReturn("NEXT_ID");
+    when(rsmd.getColumnType(2)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(2)).thenReturn(Integer.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false); // for simplicity.
+
+    final List<Object> results = resultSetHandler.handleResultSets(stmt);
+    assertEquals(2, results.size());
+    assertEquals("order", ((Sequence) results.get(0)).getName());
+    assertEquals(1000, ((Sequence) results.get(0)).getNextId());
+    assertEquals("line", ((Sequence) results.get(1)).getName());
+    assertEquals(2000, ((Sequence) results.get(1)).getNextId());
+  }
+
+  @Test
+  void shouldShareResultSetLayoutBetweenResultSetsWithSameColumns() throws Exception {
+    final MappedStatement ms = getMappedStatement();
+    ms.getConfiguration().setResultSetLayoutCacheEnabled(true);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnLabel(1)).thenReturn("CoLuMn1");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getCanonicalName());
+
+    final ResultSetWrapper first = new ResultSetWrapper(rs, ms.getConfiguration(), ms);
+    assertEquals(1, first.getColumnIndex("column1"));
+    final ResultSetWrapper second = new ResultSetWrapper(rs, ms.getConfiguration(), ms);
+    assertSame(first.getLayout(), second.getLayout());
+    assertEquals(1, second.getLayout().columnIndexMap.get("column1"));
+
+    final ResultSetWrapper unshared = new ResultSetWrapper(rs, ms.getConfiguration());
+    assertNotSame(first.getLayout(), unshared.getLayout());
+  }
+
   MappedStatement getMappedStatement() {
     final Configuration config = new Configuration();
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
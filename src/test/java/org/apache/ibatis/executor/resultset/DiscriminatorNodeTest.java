@@ -0,0 +1,90 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.mapping.Discriminator;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class DiscriminatorNodeTest {
+
+  private final Configuration configuration = new Configuration();
+
+  @Test
+  void shouldFollowDiscriminatorCasesAndReuseNodes() {
+    final ResultMap vehicle = addResultMap("vehicle", discriminator("type", "car", "car", "truck", "truck"));
+    final ResultMap car = addResultMap("car", null);
+    final ResultMap truck = addResultMap("truck", discriminator("axles", "3", "heavyTruck"));
+    final ResultMap heavyTruck = addResultMap("heavyTruck", null);
+
+    final DiscriminatorNode root = DiscriminatorNode.root(configuration, vehicle);
+    assertSame(vehicle.getDiscriminator(), root.getDiscriminator());
+
+    final DiscriminatorNode carNode = root.next("car");
+    assertSame(car, carNode.getResultMap());
+    assertNull(carNode.getDiscriminator());
+    assertSame(carNode, root.next("car"));
+
+    final DiscriminatorNode truckNode = root.next("truck");
+    assertSame(truck, truckNode.getResultMap());
+    assertSame(truck.getDiscriminator(), truckNode.getDiscriminator());
+    assertSame(heavyTruck, truckNode.next(3).getResultMap());
+    assertSame(truck, truckNode.next(2).getResultMap());
+    assertNull(truckNode.next(2).getDiscriminator());
+
+    assertSame(vehicle, root.next(null).getResultMap());
+    assertSame(vehicle, root.next("bike").getResultMap());
+  }
+
+  @Test
+  void shouldStopAtResultMapAlreadyVisited() {
+    final ResultMap first = addResultMap("first", discriminator("kind", "a", "second"));
+    final ResultMap second = addResultMap("second", discriminator("kind", "b", "first"));
+
+    final DiscriminatorNode secondNode = DiscriminatorNode.root(configuration, first).next("a");
+    assertSame(second, secondNode.getResultMap());
+    final DiscriminatorNode firstNode = secondNode.next("b");
+    assertSame(first, firstNode.getResultMap());
+    final DiscriminatorNode last = firstNode.next("a");
+    assertSame(second, last.getResultMap());
+    assertNull(last.getDiscriminator());
+  }
+
+  private ResultMap addResultMap(String id, Discriminator discriminator) {
+    final ResultMap resultMap = new ResultMap.Builder(configuration, id, HashMap.class, new ArrayList<>()).discriminator(discriminator).build();
+    configuration.addResultMap(resultMap);
+    return resultMap;
+  }
+
+  private Discriminator discriminator(String column, String... cases) {
+    final Map<String, String> discriminatorMap = new HashMap<>();
+    for (int i = 0; i < cases.length; i += 2) {
+      discriminatorMap.put(cases[i], cases[i + 1]);
+    }
+    final ResultMapping resultMapping = new ResultMapping.Builder(configuration, null, column, String.class).build();
+    return new Discriminator.Builder(configuration, resultMapping, discriminatorMap).build();
+  }
+
+}
@@ -0,0 +1,71 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+
+import org.apache.ibatis.type.IntegerTypeHandler;
+import org.apache.ibatis.type.StringTypeHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RowKeyTest {
+
+  @Mock
+  private ResultSet rs;
+
+  @Test
+  void shouldMatchKeysWithSameValuesAndParent() throws Exception {
+    final RowKey.Plan plan = new RowKey.PlanBuilder().addColumn(1, new IntegerTypeHandler(), false).addColumn(2, new StringTypeHandler(), false)
+        .build("blogMap", null);
+    final RowKey.Plan prefixedPlan = new RowKey.PlanBuilder().addColumn(1, new IntegerTypeHandler(), false).addColumn(2, new StringTypeHandler(), false)
+        .build("blogMap", "CO_");
+    when(rs.getInt(1)).thenReturn(1, 1, 2, 1);
+    when(rs.getString(2)).thenReturn("a", "a", "a", "a");
+
+    final RowKey key = plan.createKey(rs);
+    final RowKey sameKey = plan.createKey(rs);
+    final RowKey otherKey = plan.createKey(rs);
+    final RowKey prefixedKey = prefixedPlan.createKey(rs);
+    assertEquals(key, sameKey);
+    assertEquals(key.hashCode(), sameKey.hashCode());
+    assertNotEquals(key, otherKey);
+    assertNotEquals(key, prefixedKey);
+    assertEquals(key.combine(otherKey), sameKey.combine(otherKey));
+    assertNotEquals(key, key.combine(otherKey));
+    assertNotEquals(key.combine(sameKey), key.combine(otherKey));
+  }
+
+  @Test
+  void shouldReturnNullKeyWhenNoColumnHasValue() throws Exception {
+    final RowKey.Plan plan = new RowKey.PlanBuilder().addColumn(1, new IntegerTypeHandler(), false).addStringColumn(2).build("blogMap", null);
+    when(rs.getInt(1)).thenReturn(0, 7);
+    when(rs.wasNull()).thenReturn(true);
+    when(rs.getString(2)).thenReturn(null, "a");
+
+    assertSame(RowKey.NULL, plan.createKey(rs));
+    assertSame(RowKey.NULL, plan.createKey(rs).combine(RowKey.NULL));
+  }
+
+}
@@ -0,0 +1,57 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.ibatis.domain.misc.RichType;
+import org.junit.jupiter.api.Test;
+
+class PropertyReaderTest {
+
+  private final ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+
+  @Test
+  void shouldReadPropertyAndField() {
+    RichType rich = new RichType();
+    rich.setRichProperty("foo");
+    SystemMetaObject.forObject(rich).setValue("richField", "bar");
+    assertEquals("foo", PropertyReader.forProperty(RichType.class, "richProperty", reflectorFactory).getValue(rich));
+    assertEquals("bar", PropertyReader.forProperty(RichType.class, "richField", reflectorFactory).getValue(rich));
+  }
+
+  @Test
+  void shouldReadNestedPropertyAndStopAtNull() {
+    RichType rich = new RichType();
+    PropertyReader reader = PropertyReader.forProperty(RichType.class, "richType.richProperty", reflectorFactory);
+    assertTrue(reader.isReadable());
+    assertNull(reader.getValue(rich));
+    rich.setRichType(new RichType());
+    rich.getRichType().setRichProperty("foo");
+    assertEquals("foo", reader.getValue(rich));
+  }
+
+  @Test
+  void shouldNotReadThroughIndexesMapsOrUnknownProperties() {
+    assertFalse(PropertyReader.forProperty(RichType.class, "richList[0]", reflectorFactory).isReadable());
+    assertFalse(PropertyReader.forProperty(RichType.class, "richMap.key", reflectorFactory).isReadable());
+    assertFalse(PropertyReader.forProperty(RichType.class, "unknown", reflectorFactory).isReadable());
+  }
+
+}
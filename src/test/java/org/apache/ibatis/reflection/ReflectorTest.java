@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -18,8 +18,10 @@ package org.apache.ibatis.reflection;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
 import java.util.List;
 
+import org.apache.ibatis.reflection.invoker.MethodHandleInvoker;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import static com.googlecode.catchexception.apis.BDDCatchException.*;
@@ -218,4 +220,55 @@ class ReflectorTest {
     Reflector reflector = reflectorFactory.findForClass(Bean.class);
     assertTrue((Boolean)reflector.getGetInvoker("bool").invoke(new Bean(), new Byte[0]));
   }
+
+  @Test
+  void shouldAccessPropertiesThroughMethodHandles() throws Exception {
+    @SuppressWarnings("unused")
+    class Bean {
+      private long id;
+      private String name;
+      public long getId() {return id;}
+      public void setId(long id) {this.id = id;}
+    }
+    ReflectorFactory reflectorFactory = new MethodHandleReflectorFactory();
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    assertTrue(reflector.getSetInvoker("id") instanceof MethodHandleInvoker);
+    assertTrue(reflector.getSetInvoker("name") instanceof MethodHandleInvoker);
+    Bean bean = new Bean();
+    reflector.getSetInvoker("id").invoke(bean, new Object[] {100L});
+    reflector.getSetInvoker("name").invoke(bean, new Object[] {"jim"});
+    assertEquals(100L, reflector.getGetInvoker("id").invoke(bean, new Object[0]));
+    assertEquals("jim", reflector.getGetInvoker("name").invoke(bean, new Object[0]));
+    assertEquals(long.class, reflector.getSetInvoker("id").getType());
+  }
+
+  @Test
+  void shouldConvertMethodHandleArgumentsLikeReflection() throws Exception {
+    @SuppressWarnings("unused")
+    class Bean {
+      private long id;
+      public long getId() {return id;}
+      public void setId(long id) {this.id = id;}
+    }
+    ReflectorFactory reflectorFactory = new MethodHandleReflectorFactory();
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    Bean bean = new Bean();
+    reflector.getSetInvoker("id").invoke(bean, new Object[] {100});
+    assertEquals(100L, bean.getId());
+    assertThrows(IllegalArgumentException.class, () -> reflector.getSetInvoker("id").invoke(bean, new Object[] {null}));
+    assertThrows(IllegalArgumentException.class, () -> reflector.getSetInvoker("id").invoke(bean, new Object[] {"jim"}));
+  }
+
+  @Test
+  void shouldWrapExceptionsThrownThroughMethodHandles() {
+    @SuppressWarnings("unused")
+    class Bean {
+      public void setId(long id) {throw new IllegalStateException("id is read only");}
+    }
+    ReflectorFactory reflectorFactory = new MethodHandleReflectorFactory();
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    InvocationTargetException e = assertThrows(InvocationTargetException.class,
+        () -> reflector.getSetInvoker("id").invoke(new Bean(), new Object[] {100L}));
+    assertTrue(e.getTargetException() instanceof IllegalStateException);
+  }
 }
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -48,6 +48,19 @@ class DefaultObjectFactoryTest {
     Assertions.assertEquals("foo", testClass.myString, "myString didn't match expected");
   }
 
+  @Test
+  void createClassWithCachedConstructors() {
+    DefaultObjectFactory defaultObjectFactory = new DefaultObjectFactory();
+    for (int i = 0; i < 2; i++) {
+      TestClass testClass = defaultObjectFactory.create(TestClass.class,
+          Arrays.asList(String.class, Integer.class), Arrays.asList("foo", i));
+      Assertions.assertEquals((Integer) i, testClass.myInteger, "myInteger didn't match expected");
+      Assertions.assertNotNull(defaultObjectFactory.create(ArrayList.class));
+    }
+    Assertions.assertThrows(ReflectionException.class,
+        () -> defaultObjectFactory.create(TestClass.class, Collections.singletonList(String.class), Collections.singletonList("foo")));
+  }
+
   @Test
   void createClassThrowsProperErrorMsg() {
     DefaultObjectFactory defaultObjectFactory = new DefaultObjectFactory();
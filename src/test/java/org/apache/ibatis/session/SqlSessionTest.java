@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -16,8 +16,11 @@
 package org.apache.ibatis.session;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -28,6 +31,7 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import javassist.util.proxy.Proxy;
 
@@ -249,6 +253,87 @@ class SqlSessionTest extends BaseDataTest {
     }
   }
 
+  @Test
+  void shouldCoalesceAuthorLookupsIntoOneSelect() throws Exception {
+    try (SqlSession session = sqlMapper.openSession()) {
+      BatchLoader<Integer, Author> authors = session.getBatchLoader("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAuthorsByIds", "id");
+      CompletableFuture<Author> jim = authors.load(101);
+      CompletableFuture<Author> sally = authors.load(102);
+      CompletableFuture<Author> nobody = authors.load(500);
+      assertSame(jim, authors.load(101));
+      assertSame(authors, session.getBatchLoader("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAuthorsByIds", "id"));
+      assertEquals(3, authors.getQueuedCount());
+      assertFalse(jim.isDone());
+
+      authors.dispatch();
+      assertEquals("sally", sally.get().getUsername());
+      assertEquals(0, authors.getQueuedCount());
+      assertEquals("jim", jim.getNow(null).getUsername());
+      assertNull(nobody.join());
+      assertSame(jim, authors.load(101));
+
+      session.clearCache();
+      CompletableFuture<Author> reloaded = authors.load(101);
+      assertNotSame(jim, reloaded);
+      assertEquals(1, authors.getQueuedCount());
+      authors.dispatch();
+      assertEquals("jim", reloaded.getNow(null).getUsername());
+    }
+  }
+
+  @Test
+  void shouldCompleteDependentStagesOfBatchLoadsOnDispatch() {
+    try (SqlSession session = sqlMapper.openSession()) {
+      BatchLoader<Integer, Author> authors = session.getBatchLoader("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAuthorsByIds", "id");
+      CompletableFuture<String> jim = authors.load(101).thenApply(Author::getUsername);
+      CompletableFuture<Author> sally = authors.load(102);
+      CompletableFuture<Void> both = CompletableFuture.allOf(jim, sally);
+      assertFalse(both.isDone());
+      authors.dispatch();
+      both.join();
+      assertEquals("jim", jim.join());
+      assertEquals("sally", sally.join().getUsername());
+    }
+  }
+
+  @Test
+  void shouldDispatchBatchLoadsBeforeTheNextStatement() {
+    try (SqlSession session = sqlMapper.openSession()) {
+      BatchLoader<Integer, Author> authors = session.getBatchLoader("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAuthorsByIds", "id");
+      CompletableFuture<String> jim = authors.load(101).thenCompose(author -> CompletableFuture.completedFuture(author.getUsername()));
+      Author sally = session.selectOne("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAuthor", 102);
+      assertEquals("sally", sally.getUsername());
+      assertEquals(0, authors.getQueuedCount());
+      assertEquals("jim", jim.getNow(null));
+    }
+  }
+
+  @Test
+  void shouldDispatchBatchLoadsQueuedByDependentStages() {
+    try (SqlSession session = sqlMapper.openSession()) {
+      BatchLoader<Integer, Author> authors = session.getBatchLoader("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAuthorsByIds", "id");
+      CompletableFuture<Blog> jimsBlog = authors.load(101).thenCompose(author -> session
+          .<Integer, Blog>getBatchLoader("org.apache.ibatis.domain.blog.mappers.BlogMapper.selectBlogsByAuthorIds", "author.id")
+          .load(author.getId()));
+      CompletableFuture<Blog> sallysBlog = authors.load(102).thenCompose(author -> session
+          .<Integer, Blog>getBatchLoader("org.apache.ibatis.domain.blog.mappers.BlogMapper.selectBlogsByAuthorIds", "author.id")
+          .load(author.getId()));
+      Author jim = session.selectOne("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAuthor", 101);
+      assertEquals("jim", jim.getUsername());
+      assertEquals("Jim Business", jimsBlog.getNow(null).getTitle());
+      assertEquals("Bally Slog", sallysBlog.getNow(null).getTitle());
+    }
+  }
+
+  @Test
+  void shouldFailQueuedBatchLoadsOnClose() {
+    CompletableFuture<Author> jim;
+    try (SqlSession session = sqlMapper.openSession()) {
+      jim = session.<Integer, Author>getBatchLoader("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAuthorsByIds", "id").load(101);
+    }
+    assertTrue(jim.isCompletedExceptionally());
+  }
+
   @Test
   void shouldUpdateAuthorImplicitRollback() {
     try (SqlSession session = sqlMapper.openSession()) {
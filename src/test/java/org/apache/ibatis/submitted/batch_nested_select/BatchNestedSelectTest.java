@@ -0,0 +1,145 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_nested_select;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.Reader;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchNestedSelectTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private static final List<String> executedSql = new ArrayList<>();
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_nested_select/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlSessionFactory.getConfiguration().addInterceptor(new SqlRecorder());
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_nested_select/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void clearExecutedSql() {
+    executedSql.clear();
+  }
+
+  @Test
+  void shouldLoadNestedSelectsOfAllRowsInBatches() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(Mapper.class).selectBlogs();
+      assertBlogs(blogs);
+      assertSame(blogs.get(0).getAuthor(), blogs.get(2).getAuthor());
+      // the blogs, the two authors at once and the posts of four blogs in batches of three
+      assertEquals(4, executedSql.size());
+    }
+  }
+
+  @Test
+  void shouldLoadNestedSelectsPerRowForResultHandler() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = new ArrayList<>();
+      sqlSession.getMapper(Mapper.class).selectBlogs(context -> {
+        assertNotNull(context.getResultObject().getPosts());
+        blogs.add(context.getResultObject());
+      });
+      assertBlogs(blogs);
+    }
+  }
+
+  @Test
+  void shouldLoadLazyNestedSelectsOfSiblingsInBatches() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(Mapper.class).selectBlogsLazily();
+      assertEquals(1, executedSql.size());
+      assertEquals("Ana", blogs.get(0).getAuthor().getName());
+      // the authors of all blogs are loaded by the first access
+      assertEquals(2, executedSql.size());
+      blogs.get(3).setPosts(new ArrayList<>());
+      assertEquals(1, blogs.get(1).getPosts().size());
+      // the posts of the other three blogs are loaded at once
+      assertEquals(3, executedSql.size());
+      assertBlogs(blogs);
+      assertEquals(3, executedSql.size());
+    }
+  }
+
+  @Test
+  void shouldLoadFollowingThenPrecedingLazySiblings() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(Mapper.class).selectBlogsLazily();
+      assertEquals(0, blogs.get(2).getPosts().size());
+      // the posts of the two following blogs and of the first blog are loaded at once
+      assertEquals(2, executedSql.size());
+      assertEquals(2, blogs.get(0).getPosts().size());
+      assertEquals(0, blogs.get(3).getPosts().size());
+      assertEquals(2, executedSql.size());
+      assertEquals(1, blogs.get(1).getPosts().size());
+      assertEquals(3, executedSql.size());
+    }
+  }
+
+  private void assertBlogs(List<Blog> blogs) {
+    assertEquals(4, blogs.size());
+    assertEquals("Ana", blogs.get(0).getAuthor().getName());
+    assertEquals("Ben", blogs.get(1).getAuthor().getName());
+    assertEquals("Ana", blogs.get(2).getAuthor().getName());
+    assertNull(blogs.get(3).getAuthor());
+    assertEquals(2, blogs.get(0).getPosts().size());
+    assertEquals("Hello", blogs.get(0).getPosts().get(0).getSubject());
+    assertEquals("Again", blogs.get(0).getPosts().get(1).getSubject());
+    assertEquals(1, blogs.get(1).getPosts().size());
+    assertEquals("Welcome", blogs.get(1).getPosts().get(0).getSubject());
+    assertEquals(0, blogs.get(2).getPosts().size());
+    assertEquals(0, blogs.get(3).getPosts().size());
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "query", args = { Statement.class, ResultHandler.class }))
+  public static class SqlRecorder implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      executedSql.add(((StatementHandler) invocation.getTarget()).getBoundSql().getSql());
+      return invocation.proceed();
+    }
+
+  }
+
+}
@@ -0,0 +1,104 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.columnar;
+
+import java.io.Reader;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.result.ColumnarResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ColumnarResultTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/columnar/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/columnar/CreateDB.sql");
+  }
+
+  @Test
+  void shouldReadColumnsFromMapper() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).getItems();
+      Assertions.assertEquals(4, result.getRowCount());
+      Assertions.assertArrayEquals(new int[] { 1, 2, 3, 4 }, result.getIntColumn("id"));
+      Assertions.assertEquals(long.class, result.getColumnType("quantity"));
+      Assertions.assertEquals(30L, result.getLongColumn("quantity")[2]);
+      Assertions.assertEquals(2.5, result.getDoubleColumn("price")[1], 0);
+      Assertions.assertArrayEquals(new String[] { "fruit", "fruit", null, "vegetable" }, result.getStringColumn("category"));
+      Assertions.assertEquals(2, result.getStringDictionary("category").size());
+    }
+  }
+
+  @Test
+  void shouldReadNulls() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).getItems();
+      Assertions.assertTrue(result.isNull("quantity", 1));
+      Assertions.assertNull(result.getValue("quantity", 1));
+      Assertions.assertFalse(result.isNull("quantity", 0));
+      Assertions.assertTrue(result.isNull("price", 2));
+      Assertions.assertNull(result.getValue("price", 2));
+      Assertions.assertEquals(-1, result.getStringCodes("category")[2]);
+      Assertions.assertNull(result.getValue("name", 3));
+      Assertions.assertEquals("carrot", result.getValue("name", 2));
+    }
+  }
+
+  @Test
+  void shouldApplyRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).getItemPage(new RowBounds(1, 2));
+      Assertions.assertArrayEquals(new int[] { 2, 3 }, result.getIntColumn("id"));
+    }
+  }
+
+  @Test
+  void shouldNotDictionaryEncodeDistinctStrings() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int id = 5; id <= 1000; id++) {
+        mapper.insertItem(id, "item" + id);
+      }
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.selectColumnar("org.apache.ibatis.submitted.columnar.Mapper.getItems");
+      Assertions.assertEquals(1000, result.getRowCount());
+      Assertions.assertNull(result.getStringCodes("name"));
+      Assertions.assertNull(result.getStringDictionary("name"));
+      String[] names = result.getStringColumn("name");
+      Assertions.assertEquals("apple", names[0]);
+      Assertions.assertNull(names[3]);
+      Assertions.assertEquals("item1000", names[999]);
+      Assertions.assertEquals(3, result.getStringDictionary("category").size());
+    }
+  }
+
+}
@@ -0,0 +1,30 @@
+--
+--    Copyright 2009-2026 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table items if exists;
+
+create table items (
+  id int,
+  quantity bigint,
+  price double,
+  category varchar(20),
+  name varchar(20)
+);
+
+insert into items values(1, 10, 1.5, 'fruit', 'apple');
+insert into items values(2, null, 2.5, 'fruit', 'banana');
+insert into items values(3, 30, null, null, 'carrot');
+insert into items values(4, 40, 4.5, 'vegetable', null);
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,7 +17,12 @@ package org.apache.ibatis.submitted.cursor_simple;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
+import org.apache.ibatis.cursor.Flow;
+import org.apache.ibatis.cursor.defaults.DefaultCursor;
+import org.apache.ibatis.cursor.defaults.PrefetchingCursor;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
@@ -29,6 +34,7 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -387,4 +393,111 @@ class CursorSimpleTest {
 
   }
 
+  @Test
+  void shouldPublishUsersOnDemand() {
+    CursorPublisher<User> publisher = new CursorPublisher<>(sqlSessionFactory,
+        "org.apache.ibatis.submitted.cursor_simple.Mapper.getAllUsers", null);
+    UserSubscriber subscriber = new UserSubscriber();
+    publisher.subscribe(subscriber);
+    Assertions.assertTrue(subscriber.users.isEmpty());
+
+    subscriber.subscription.request(2);
+    Assertions.assertEquals(2, subscriber.users.size());
+    Assertions.assertEquals("User2", subscriber.users.get(1).getName());
+    Assertions.assertFalse(subscriber.completed);
+
+    subscriber.subscription.request(10);
+    Assertions.assertEquals(5, subscriber.users.size());
+    Assertions.assertTrue(subscriber.completed);
+    Assertions.assertNull(subscriber.error);
+  }
+
+  @Test
+  void shouldPublishPrefetchedUsersOnDemand() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setCursorPrefetchSize(2);
+    try {
+      CursorPublisher<User> publisher = new CursorPublisher<>(sqlSessionFactory,
+          "org.apache.ibatis.submitted.cursor_simple.Mapper.getAllUsers", null);
+      UserSubscriber subscriber = new UserSubscriber();
+      publisher.subscribe(subscriber);
+
+      subscriber.subscription.request(1);
+      Assertions.assertEquals(1, subscriber.users.size());
+      Assertions.assertFalse(subscriber.completed);
+
+      subscriber.subscription.request(10);
+      Assertions.assertEquals(5, subscriber.users.size());
+      Assertions.assertTrue(subscriber.completed);
+      Assertions.assertNull(subscriber.error);
+    } finally {
+      configuration.setCursorPrefetchSize(0);
+    }
+  }
+
+  @Test
+  void shouldPrefetchOnlyCursorsWithoutNestedSelects() throws IOException {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setCursorPrefetchSize(2);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      try (Cursor<User> users = sqlSession.selectCursor("org.apache.ibatis.submitted.cursor_simple.Mapper.getAllUsers")) {
+        Assertions.assertTrue(users instanceof PrefetchingCursor);
+      }
+      try (Cursor<User> users = sqlSession.selectCursor("org.apache.ibatis.submitted.cursor_simple.Mapper.getAllUsersWithNestedNames")) {
+        Assertions.assertTrue(users instanceof DefaultCursor);
+        List<String> names = new ArrayList<>();
+        users.forEach(user -> names.add(user.getName()));
+        Assertions.assertEquals(Arrays.asList("User1", "User2", "User3", "User4", "User5"), names);
+      }
+    } finally {
+      configuration.setCursorPrefetchSize(0);
+    }
+  }
+
+  @Test
+  void shouldStopPublishingUsersOnCancel() {
+    CursorPublisher<User> publisher = new CursorPublisher<>(sqlSessionFactory,
+        "org.apache.ibatis.submitted.cursor_simple.Mapper.getAllUsers", null);
+    UserSubscriber subscriber = new UserSubscriber();
+    publisher.subscribe(subscriber);
+
+    subscriber.subscription.request(1);
+    subscriber.subscription.cancel();
+    subscriber.subscription.request(1);
+    Assertions.assertEquals(1, subscriber.users.size());
+    Assertions.assertFalse(subscriber.completed);
+
+    subscriber = new UserSubscriber();
+    publisher.subscribe(subscriber);
+    subscriber.subscription.request(0);
+    Assertions.assertTrue(subscriber.error instanceof IllegalArgumentException);
+  }
+
+  private static class UserSubscriber implements Flow.Subscriber<User> {
+    private final List<User> users = new ArrayList<>();
+    private Flow.Subscription subscription;
+    private Throwable error;
+    private boolean completed;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(User user) {
+      users.add(user);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+  }
+
 }
@@ -0,0 +1,67 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.sharding;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.One;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.mapping.FetchType;
+import org.apache.ibatis.session.RowBounds;
+
+public interface Mapper {
+
+  @Insert("insert into users (id, name) values (#{id}, #{name})")
+  int insertUser(User user);
+
+  @Select("select id, name from users where id = #{id}")
+  User getUser(Integer id);
+
+  @Select("select id, name from users order by id")
+  List<User> getAllUsers();
+
+  @Select("select id, name from users order by id")
+  List<User> getUsers(RowBounds rowBounds);
+
+  @Select("select id, name from users order by id")
+  CompletableFuture<List<User>> getAllUsersAsync();
+
+  @Select("select name from users where id = #{id}")
+  String getUserName(Integer id);
+
+  @Select("select id from users order by id")
+  @Results({
+      @Result(property = "id", column = "id", id = true),
+      @Result(property = "name", column = "id", one = @One(select = "getUserName", fetchType = FetchType.EAGER))
+  })
+  List<User> getAllUsersWithNestedNames();
+
+  @Select("select id from users order by id")
+  @Results({
+      @Result(property = "id", column = "id", id = true),
+      @Result(property = "name", column = "id", one = @One(select = "getUserName", fetchType = FetchType.LAZY))
+  })
+  List<User> getAllUsersWithLazyNames();
+
+  @Update("update users set name = upper(name)")
+  int renameAllUsers();
+
+}
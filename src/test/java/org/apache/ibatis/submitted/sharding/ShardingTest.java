@@ -0,0 +1,243 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.sharding;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.sharding.ShardFunction;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.defaults.ShardedSqlSessionFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+
+class ShardingTest {
+
+  private static final String CONFIG = "org/apache/ibatis/submitted/sharding/mybatis-config.xml";
+
+  private SqlSessionFactory shard0;
+  private SqlSessionFactory shard1;
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader(CONFIG)) {
+      shard0 = new SqlSessionFactoryBuilder().build(reader, "shard0");
+    }
+    try (Reader reader = Resources.getResourceAsReader(CONFIG)) {
+      shard1 = new SqlSessionFactoryBuilder().build(reader, "shard1");
+    }
+    Map<String, Environment> shards = new LinkedHashMap<>();
+    for (SqlSessionFactory factory : asList(shard0, shard1)) {
+      Environment environment = factory.getConfiguration().getEnvironment();
+      BaseDataTest.runScript(environment.getDataSource(), "org/apache/ibatis/submitted/sharding/CreateDB.sql");
+      shards.put(environment.getId(), environment);
+    }
+    sqlSessionFactory = new ShardedSqlSessionFactory(shard0.getConfiguration(), shards, new ShardFunction() {
+      @Override
+      public String getShard(MappedStatement ms, Object parameter) {
+        if (parameter == null) {
+          return SCATTER;
+        }
+        Integer id = parameter instanceof User ? ((User) parameter).getId() : (Integer) parameter;
+        return id == null ? null : "shard" + id % 2;
+      }
+
+      @Override
+      public Comparator<Object> getMergeOrder(MappedStatement ms) {
+        return Comparator.comparing(user -> ((User) user).getId());
+      }
+    });
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int id = 1; id <= 6; id++) {
+        mapper.insertUser(new User(id, "User" + id));
+      }
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldRouteKeyedStatementsToOneShard() {
+    try (SqlSession sqlSession = shard0.openSession()) {
+      Assertions.assertEquals(asList(2, 4, 6), ids(sqlSession.getMapper(Mapper.class).getAllUsers()));
+    }
+    try (SqlSession sqlSession = shard1.openSession()) {
+      Assertions.assertEquals(asList(1, 3, 5), ids(sqlSession.getMapper(Mapper.class).getAllUsers()));
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Assertions.assertEquals("User3", mapper.getUser(3).getName());
+      Assertions.assertEquals("User4", mapper.getUser(4).getName());
+    }
+  }
+
+  @Test
+  void shouldScatterAndMergeInOrder() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Assertions.assertEquals(asList(1, 2, 3, 4, 5, 6), ids(mapper.getAllUsers()));
+      Assertions.assertEquals(asList(3, 4, 5), ids(mapper.getUsers(new RowBounds(2, 3))));
+    }
+  }
+
+  @Test
+  void shouldRunAsyncMethodsOnTheShards() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Assertions.assertEquals(asList(1, 2, 3, 4, 5, 6), ids(mapper.getAllUsersAsync().get()));
+    }
+  }
+
+  @Test
+  void shouldScatterUpdatesAndSumCounts() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Assertions.assertEquals(6, mapper.renameAllUsers());
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = shard1.openSession()) {
+      Assertions.assertEquals("USER1", sqlSession.getMapper(Mapper.class).getUser(1).getName());
+    }
+  }
+
+  @Test
+  void shouldHandleScatteredResultsInOrder() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Integer> ids = new ArrayList<>();
+      sqlSession.select("org.apache.ibatis.submitted.sharding.Mapper.getAllUsers", null, context -> {
+        ids.add(((User) context.getResultObject()).getId());
+        if (ids.size() == 4) {
+          context.stop();
+        }
+      });
+      Assertions.assertEquals(asList(1, 2, 3, 4), ids);
+    }
+  }
+
+  @Test
+  void shouldRunNestedSelectsOfScatteredRowsOnTheirShard() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getAllUsersWithNestedNames();
+      Assertions.assertEquals(asList(1, 2, 3, 4, 5, 6), ids(users));
+      for (User user : users) {
+        Assertions.assertEquals("User" + user.getId(), user.getName());
+      }
+    }
+  }
+
+  @Test
+  void shouldNotScatterSelectsWithLazyNestedSelects() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      PersistenceException e = Assertions.assertThrows(PersistenceException.class, mapper::getAllUsersWithLazyNames);
+      Assertions.assertTrue(e.getCause() instanceof ExecutorException);
+      Assertions.assertTrue(e.getCause().getMessage().contains("lazy nested selects"));
+    }
+  }
+
+  @Test
+  void shouldNotScatterCursors() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      PersistenceException e = Assertions.assertThrows(PersistenceException.class,
+          () -> sqlSession.selectCursor("org.apache.ibatis.submitted.sharding.Mapper.getAllUsers"));
+      Assertions.assertTrue(e.getCause() instanceof ExecutorException);
+      Assertions.assertTrue(e.getCause().getMessage().contains("cannot be scattered"));
+    }
+  }
+
+  @Test
+  void shouldRejectUnknownShards() {
+    Map<String, Environment> shards = new LinkedHashMap<>();
+    shards.put("shard0", shard0.getConfiguration().getEnvironment());
+    shards.put("shard1", shard1.getConfiguration().getEnvironment());
+    SqlSessionFactory factory = new ShardedSqlSessionFactory(shard0.getConfiguration(), shards, (ms, parameter) -> "shard2");
+    try (SqlSession sqlSession = factory.openSession()) {
+      PersistenceException e = Assertions.assertThrows(PersistenceException.class,
+          () -> sqlSession.getMapper(Mapper.class).getUser(1));
+      Assertions.assertTrue(e.getCause() instanceof ExecutorException);
+      Assertions.assertTrue(e.getCause().getMessage().contains("unknown shard 'shard2'"));
+    }
+  }
+
+  @Test
+  void shouldRejectStatementsWithoutShard() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      PersistenceException e = Assertions.assertThrows(PersistenceException.class,
+          () -> mapper.insertUser(new User(null, "nobody")));
+      Assertions.assertTrue(e.getCause() instanceof ExecutorException);
+      Assertions.assertTrue(e.getCause().getMessage().contains("was not routed to a shard"));
+    }
+  }
+
+  @Test
+  void shouldNotScatterInserts() {
+    Map<String, Environment> shards = new LinkedHashMap<>();
+    shards.put("shard0", shard0.getConfiguration().getEnvironment());
+    shards.put("shard1", shard1.getConfiguration().getEnvironment());
+    SqlSessionFactory factory = new ShardedSqlSessionFactory(shard0.getConfiguration(), shards,
+        (ms, parameter) -> ShardFunction.SCATTER);
+    try (SqlSession sqlSession = factory.openSession()) {
+      PersistenceException e = Assertions.assertThrows(PersistenceException.class,
+          () -> sqlSession.getMapper(Mapper.class).insertUser(new User(7, "User7")));
+      Assertions.assertTrue(e.getCause() instanceof ExecutorException);
+      Assertions.assertTrue(e.getCause().getMessage().contains("cannot be scattered"));
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Assertions.assertEquals(6, sqlSession.getMapper(Mapper.class).getAllUsers().size());
+    }
+  }
+
+  @Test
+  void shouldThrowFailureOfOneShard() throws Exception {
+    try (Connection connection = shard1.getConfiguration().getEnvironment().getDataSource().getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("drop table users");
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      PersistenceException e = Assertions.assertThrows(PersistenceException.class, mapper::getAllUsers);
+      Assertions.assertTrue(e.getCause() instanceof SQLException);
+      Assertions.assertEquals("User2", mapper.getUser(2).getName());
+    }
+  }
+
+  private static List<Integer> ids(List<User> users) {
+    return users.stream().map(User::getId).collect(Collectors.toList());
+  }
+
+}
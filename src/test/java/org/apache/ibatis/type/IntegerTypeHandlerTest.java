@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -87,4 +87,12 @@ class IntegerTypeHandlerTest extends BaseTypeHandlerTest {
     assertNull(TYPE_HANDLER.getResult(cs, 1));
   }
 
-}
\ No newline at end of file
+  @Test
+  void shouldGetPrimitiveResultFromResultSetByPosition() throws Exception {
+    PrimitiveTypeHandler primitiveTypeHandler = (PrimitiveTypeHandler) TYPE_HANDLER;
+    assertEquals(int.class, primitiveTypeHandler.getPrimitiveType());
+    when(rs.getInt(1)).thenReturn(100);
+    assertEquals(100, primitiveTypeHandler.getIntResult(rs, 1));
+  }
+
+}
@@ -0,0 +1,128 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PrimitiveTypeHandlerTest {
+
+  @Mock
+  private ResultSet rs;
+
+  @Test
+  void shouldReadSqlNullAsZero() throws Exception {
+    when(rs.getInt(1)).thenReturn(0);
+    when(rs.wasNull()).thenReturn(true);
+    assertEquals(0, ((PrimitiveTypeHandler) new IntegerTypeHandler()).getIntResult(rs, 1));
+    assertTrue(rs.wasNull());
+  }
+
+  @Test
+  void shouldUnboxTheResultByDefault() throws Exception {
+    when(rs.getLong(1)).thenReturn(7L);
+    assertEquals(7L, new DefaultReadingHandler().getLongResult(rs, 1));
+    assertEquals(7, new DefaultReadingHandler().getIntResult(rs, 1));
+    when(rs.getLong(1)).thenReturn(0L);
+    when(rs.wasNull()).thenReturn(true);
+    assertEquals(0d, new DefaultReadingHandler().getDoubleResult(rs, 1), 0);
+  }
+
+  @Test
+  void shouldResolvePrimitiveTypeOfBuiltInHandlers() {
+    assertEquals(int.class, PrimitiveTypeHandler.resolvePrimitiveType(new IntegerTypeHandler()));
+    assertEquals(long.class, PrimitiveTypeHandler.resolvePrimitiveType(new LongTypeHandler()));
+    assertEquals(double.class, PrimitiveTypeHandler.resolvePrimitiveType(new DoubleTypeHandler()));
+    assertNull(PrimitiveTypeHandler.resolvePrimitiveType(new StringTypeHandler()));
+  }
+
+  @Test
+  void shouldNotResolvePrimitiveTypeWhenResultReadingIsOverridden() {
+    assertNull(PrimitiveTypeHandler.resolvePrimitiveType(new IntegerTypeHandler() {
+      @Override
+      public Integer getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return rs.getInt(columnIndex) + 1;
+      }
+    }));
+    assertNull(PrimitiveTypeHandler.resolvePrimitiveType(new LongTypeHandler() {
+      @Override
+      public Long getResult(ResultSet rs, int columnIndex) throws SQLException {
+        return rs.getLong(columnIndex) + 1;
+      }
+    }));
+    assertNull(PrimitiveTypeHandler.resolvePrimitiveType(new DefaultReadingHandler()));
+  }
+
+  @Test
+  void shouldResolvePrimitiveTypeWhenPrimitiveReaderIsOverriddenToo() {
+    assertEquals(int.class, PrimitiveTypeHandler.resolvePrimitiveType(new IntegerTypeHandler() {
+      @Override
+      public Integer getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return rs.getInt(columnIndex) + 1;
+      }
+
+      @Override
+      public int getIntResult(ResultSet rs, int columnIndex) throws SQLException {
+        return rs.getInt(columnIndex) + 1;
+      }
+    }));
+  }
+
+  private static class DefaultReadingHandler extends BaseTypeHandler<Long> implements PrimitiveTypeHandler {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, Long parameter, JdbcType jdbcType) throws SQLException {
+      ps.setLong(i, parameter);
+    }
+
+    @Override
+    public Long getNullableResult(ResultSet rs, String columnName) throws SQLException {
+      long result = rs.getLong(columnName);
+      return result == 0 && rs.wasNull() ? null : result;
+    }
+
+    @Override
+    public Long getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+      long result = rs.getLong(columnIndex);
+      return result == 0 && rs.wasNull() ? null : result;
+    }
+
+    @Override
+    public Long getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+      long result = cs.getLong(columnIndex);
+      return result == 0 && cs.wasNull() ? null : result;
+    }
+
+    @Override
+    public Class<?> getPrimitiveType() {
+      return long.class;
+    }
+  }
+
+}